@@ -0,0 +1,67 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq;
+
+
+/**
+ * Factory creating instances of one bean class without reflection.
+ *
+ * Implementations are generated at compile time by the dinistiq annotation processor. They are named after the bean
+ * class with the suffix given here, reside in the same package, and are listed as services of this interface.
+ * Dinistiq uses the factory of a bean class instead of reflective constructor calls if it is available.
+ *
+ * @param <T> type of the beans created
+ */
+public interface BeanFactory<T extends Object> {
+
+    /**
+     * Suffix of the names of the generated factory classes.
+     */
+    String SUFFIX = "_DinistiqFactory";
+
+
+    /**
+     * Get the name of the factory class for a given bean class.
+     * Nested classes get their factory in the package of the top level class with the names joined by underscores.
+     *
+     * @param className binary name of the bean class
+     * @return binary name of the factory class
+     */
+    static String getFactoryName(String className) {
+        return className.replace('$', '_')+SUFFIX;
+    } // getFactoryName()
+
+
+    /**
+     * Get the class of the beans created by this factory.
+     *
+     * @return bean class
+     */
+    Class<T> getType();
+
+
+    /**
+     * Create a new instance by calling the constructor used for injection.
+     *
+     * @param parameters values for the parameters of the constructor in declaration order
+     * @return fresh instance without any field or method injections done
+     */
+    T create(Object[] parameters);
+
+} // BeanFactory
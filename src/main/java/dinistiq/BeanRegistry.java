@@ -0,0 +1,297 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+
+/**
+ * Named beans of a dinistiq scope together with an index from each type to the names of the beans assignable to it.
+ *
+ * The index is maintained on every registration, so lookups by type don't need to scan all the beans.
+ *
+ * Every name is numbered with an ordinal when it is registered for the first time and keeps it when it is registered
+ * again. Each bean instance can be mapped back by identity to the ordinal of one of the names it is registered with.
+ * This way dependency bookkeeping can check membership in constant time.
+ *
+ * The registry may be used from several threads at a time. All query methods return snapshots.
+ */
+final class BeanRegistry {
+
+    private final Map<String, Object> beans = new HashMap<>();
+
+    private final Map<Class<?>, Set<String>> typeIndex = new HashMap<>();
+
+    private final Map<Class<?>, Set<Class<?>>> supertypes = new ConcurrentHashMap<>();
+
+    private final List<String> ordinalNames = new ArrayList<>();
+
+    private final Map<String, Integer> nameOrdinals = new HashMap<>();
+
+    private final Map<Object, Integer> ordinals = new IdentityHashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+
+    /**
+     * Collect all classes and interfaces instances of the given class are assignable to.
+     *
+     * @param cls class to collect supertypes for
+     * @return set of the class itself, its superclasses, and all directly or indirectly implemented interfaces
+     */
+    Set<Class<?>> getSupertypes(Class<?> cls) {
+        return supertypes.computeIfAbsent(cls, type -> {
+            Set<Class<?>> result = new LinkedHashSet<>();
+            for (Class<?> c = type; c!=null; c = c.getSuperclass()) {
+                addInterfaces(c, result);
+            } // for
+            return result;
+        });
+    } // getSupertypes()
+
+
+    /**
+     * Add a type and all its super interfaces to the given set of types.
+     *
+     * @param type class or interface to add
+     * @param result set of types to add the type to
+     */
+    private void addInterfaces(Class<?> type, Set<Class<?>> result) {
+        if (result.add(type)) {
+            for (Class<?> i : type.getInterfaces()) {
+                addInterfaces(i, result);
+            } // for
+        } // if
+    } // addInterfaces()
+
+
+    /**
+     * Register a bean with the given name replacing any bean previously registered with that name.
+     *
+     * @param name name of the bean
+     * @param bean bean instance - may not be null
+     */
+    void put(String name, Object bean) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            Object previous = beans.put(name, bean);
+            if (previous!=null) {
+                for (Class<?> type : getSupertypes(previous.getClass())) {
+                    typeIndex.get(type).remove(name);
+                } // for
+                Integer previousOrdinal = ordinals.get(previous);
+                if ((previous!=bean)&&(previousOrdinal!=null)&&name.equals(ordinalNames.get(previousOrdinal))) {
+                    remapOrdinal(previous);
+                } // if
+            } // if
+            Integer ordinal = nameOrdinals.get(name);
+            if (ordinal==null) {
+                ordinal = ordinalNames.size();
+                ordinalNames.add(name);
+                nameOrdinals.put(name, ordinal);
+            } // if
+            ordinals.putIfAbsent(bean, ordinal);
+            for (Class<?> type : getSupertypes(bean.getClass())) {
+                typeIndex.computeIfAbsent(type, t -> new HashSet<>()).add(name);
+            } // for
+        } finally {
+            writeLock.unlock();
+        } // try/finally
+    } // put()
+
+
+    /**
+     * Map an instance which lost the name of its ordinal to the ordinal of another name it is still registered with.
+     *
+     * The instance is dropped from the ordinals if no other name refers to it any more. Must be called with the write
+     * lock held.
+     *
+     * @param bean instance which has just been replaced under the name of its ordinal
+     */
+    private void remapOrdinal(Object bean) {
+        Integer ordinal = null;
+        for (String name : typeIndex.getOrDefault(bean.getClass(), Set.of())) {
+            if (beans.get(name)==bean) {
+                Integer candidate = nameOrdinals.get(name);
+                if ((ordinal==null)||(candidate<ordinal)) {
+                    ordinal = candidate;
+                } // if
+            } // if
+        } // for
+        if (ordinal==null) {
+            ordinals.remove(bean);
+        } else {
+            ordinals.put(bean, ordinal);
+        } // if
+    } // remapOrdinal()
+
+
+    /**
+     * Get the bean registered for a given name.
+     *
+     * @param name name of the bean
+     * @return bean instance or null if no bean with that name is present
+     */
+    Object get(String name) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return beans.get(name);
+        } finally {
+            readLock.unlock();
+        } // try/finally
+    } // get()
+
+
+    /**
+     * Tell if a bean is registered for a given name.
+     *
+     * @param name name of the bean
+     * @return true if a bean with that name is present
+     */
+    boolean containsKey(String name) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return beans.containsKey(name);
+        } finally {
+            readLock.unlock();
+        } // try/finally
+    } // containsKey()
+
+
+    /**
+     * Get the ordinal of a name a given bean instance is registered with.
+     *
+     * @param bean instance to get the ordinal for
+     * @return ordinal of the bean or -1 if the instance is not registered
+     */
+    int getOrdinal(Object bean) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            Integer ordinal = ordinals.get(bean);
+            return ordinal==null ? -1 : ordinal;
+        } finally {
+            readLock.unlock();
+        } // try/finally
+    } // getOrdinal()
+
+
+    /**
+     * Get the name registered with a given ordinal.
+     *
+     * @param ordinal ordinal of the name
+     * @return name of the bean
+     */
+    String getName(int ordinal) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return ordinalNames.get(ordinal);
+        } finally {
+            readLock.unlock();
+        } // try/finally
+    } // getName()
+
+
+    /**
+     * Get the names of all registered beans.
+     *
+     * @return set of the names
+     */
+    Set<String> names() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return new HashSet<>(beans.keySet());
+        } finally {
+            readLock.unlock();
+        } // try/finally
+    } // names()
+
+
+    /**
+     * Get all registered beans.
+     *
+     * @return collection of the bean instances
+     */
+    Collection<Object> values() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return new ArrayList<>(beans.values());
+        } finally {
+            readLock.unlock();
+        } // try/finally
+    } // values()
+
+
+    /**
+     * Get the names of all beans assignable to a given type.
+     *
+     * @param type type to look up
+     * @return set of names - may be empty but not null
+     */
+    Set<String> getNames(Class<?> type) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            Set<String> names = typeIndex.get(type);
+            return names==null ? new HashSet<>() : new HashSet<>(names);
+        } finally {
+            readLock.unlock();
+        } // try/finally
+    } // getNames()
+
+
+    /**
+     * Get all beans assignable to a given type.
+     *
+     * @param type type to look up
+     * @return map of the beans with their names as keys - may be empty but not null
+     */
+    Map<String, Object> getBeans(Class<?> type) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            Map<String, Object> result = new HashMap<>();
+            for (String name : typeIndex.getOrDefault(type, Set.of())) {
+                result.put(name, beans.get(name));
+            } // for
+            return result;
+        } finally {
+            readLock.unlock();
+        } // try/finally
+    } // getBeans()
+
+} // BeanRegistry
@@ -0,0 +1,334 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * The parts of a class file needed to tell the class hierarchy and the annotations of a class without loading it.
+ *
+ * Only the constant pool entries actually referenced are decoded. Fields and methods are skipped.
+ */
+final class ClassFile {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private byte[] bytes;
+
+    private int[] offsets;
+
+    private int position;
+
+    private final String name;
+
+    private final int accessFlags;
+
+    private final String superclass;
+
+    private final List<String> interfaces;
+
+    private final List<String> annotations;
+
+
+    /**
+     * Parse the contents of a class file.
+     *
+     * @param bytes complete class file contents
+     * @throws IOException if the contents are no valid class file
+     */
+    private ClassFile(byte[] bytes) throws IOException {
+        this.bytes = bytes;
+        if (readInt()!=MAGIC) {
+            throw new IOException("not a class file");
+        } // if
+        position += 4; // minor and major version
+        int constantPoolCount = readShort();
+        offsets = new int[constantPoolCount];
+        for (int i = 1; i<constantPoolCount; i++) {
+            offsets[i] = position;
+            int tag = bytes[position++];
+            switch (tag) {
+                case 1:
+                    int utf8Length = readShort();
+                    position += utf8Length;
+                    break;
+                case 3:
+                case 4:
+                case 9:
+                case 10:
+                case 11:
+                case 12:
+                case 17:
+                case 18:
+                    position += 4;
+                    break;
+                case 5:
+                case 6:
+                    position += 8;
+                    i++;
+                    break;
+                case 7:
+                case 8:
+                case 16:
+                case 19:
+                case 20:
+                    position += 2;
+                    break;
+                case 15:
+                    position += 3;
+                    break;
+                default:
+                    throw new IOException("unknown constant pool tag "+tag);
+            } // switch
+        } // for
+        accessFlags = readShort();
+        name = getClassName(readShort());
+        int superclassIndex = readShort();
+        superclass = (superclassIndex==0) ? null : getClassName(superclassIndex);
+        int interfaceCount = readShort();
+        List<String> interfaceNames = new ArrayList<>(interfaceCount);
+        for (int i = 0; i<interfaceCount; i++) {
+            interfaceNames.add(getClassName(readShort()));
+        } // for
+        interfaces = Collections.unmodifiableList(interfaceNames);
+        skipMembers(); // fields
+        skipMembers(); // methods
+        List<String> annotationNames = new ArrayList<>();
+        int attributeCount = readShort();
+        for (int i = 0; i<attributeCount; i++) {
+            String attributeName = getUtf8(readShort());
+            int length = readInt();
+            int end = position+length;
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+                int annotationCount = readShort();
+                for (int j = 0; j<annotationCount; j++) {
+                    String descriptor = getUtf8(readShort());
+                    annotationNames.add(descriptor.substring(1, descriptor.length()-1).replace('/', '.'));
+                    skipElementValuePairs();
+                } // for
+            } // if
+            position = end;
+        } // for
+        annotations = Collections.unmodifiableList(annotationNames);
+        // only keep the results
+        this.bytes = null;
+        offsets = null;
+    } // ClassFile()
+
+
+    /**
+     * Create class file contents from previously parsed values.
+     *
+     * @param name binary name of the class
+     * @param accessFlags access flags of the class
+     * @param superclass binary name of the superclass - null for java.lang.Object
+     * @param interfaces binary names of the directly implemented interfaces
+     * @param annotations binary names of the runtime visible annotations directly present on the class
+     */
+    ClassFile(String name, int accessFlags, String superclass, List<String> interfaces, List<String> annotations) {
+        this.name = name;
+        this.accessFlags = accessFlags;
+        this.superclass = superclass;
+        this.interfaces = Collections.unmodifiableList(new ArrayList<>(interfaces));
+        this.annotations = Collections.unmodifiableList(new ArrayList<>(annotations));
+    } // ClassFile()
+
+
+    /**
+     * Parse the contents of a class file.
+     *
+     * @param bytes complete class file contents
+     * @return parsed class file
+     * @throws IOException if the contents are no valid class file
+     */
+    static ClassFile parse(byte[] bytes) throws IOException {
+        try {
+            return new ClassFile(bytes);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("truncated class file", e);
+        } // try/catch
+    } // parse()
+
+
+    /**
+     * Read an unsigned 16 bit value.
+     *
+     * @return value read
+     */
+    private int readShort() {
+        int result = ((bytes[position]&0xFF)<<8)|(bytes[position+1]&0xFF);
+        position += 2;
+        return result;
+    } // readShort()
+
+
+    /**
+     * Read a 32 bit value.
+     *
+     * @return value read
+     */
+    private int readInt() {
+        return (readShort()<<16)|readShort();
+    } // readInt()
+
+
+    /**
+     * Decode a UTF8 constant from the constant pool.
+     *
+     * @param index constant pool index
+     * @return string value of the constant
+     * @throws IOException if the modified UTF8 encoding is invalid
+     */
+    private String getUtf8(int index) throws IOException {
+        int offset = offsets[index]+1;
+        int length = ((bytes[offset]&0xFF)<<8)|(bytes[offset+1]&0xFF);
+        for (int i = offset+2; i<offset+2+length; i++) {
+            if (bytes[i]<0) {
+                return new DataInputStream(new ByteArrayInputStream(bytes, offset, length+2)).readUTF();
+            } // if
+        } // for
+        return new String(bytes, offset+2, length, StandardCharsets.ISO_8859_1);
+    } // getUtf8()
+
+
+    /**
+     * Decode a class constant from the constant pool.
+     *
+     * @param index constant pool index
+     * @return binary name of the class
+     * @throws IOException if the modified UTF8 encoding is invalid
+     */
+    private String getClassName(int index) throws IOException {
+        int offset = offsets[index]+1;
+        int nameIndex = ((bytes[offset]&0xFF)<<8)|(bytes[offset+1]&0xFF);
+        return getUtf8(nameIndex).replace('/', '.');
+    } // getClassName()
+
+
+    /**
+     * Skip the attributes of a class member or a class.
+     */
+    private void skipAttributes() {
+        int attributeCount = readShort();
+        for (int i = 0; i<attributeCount; i++) {
+            position += 2;
+            int length = readInt();
+            position += length;
+        } // for
+    } // skipAttributes()
+
+
+    /**
+     * Skip a list of fields or methods.
+     */
+    private void skipMembers() {
+        int memberCount = readShort();
+        for (int i = 0; i<memberCount; i++) {
+            position += 6; // access flags, name, and descriptor
+            skipAttributes();
+        } // for
+    } // skipMembers()
+
+
+    /**
+     * Skip the element value pairs of an annotation.
+     */
+    private void skipElementValuePairs() {
+        int pairCount = readShort();
+        for (int i = 0; i<pairCount; i++) {
+            position += 2;
+            skipElementValue();
+        } // for
+    } // skipElementValuePairs()
+
+
+    /**
+     * Skip a single element value of an annotation.
+     */
+    private void skipElementValue() {
+        int tag = bytes[position++];
+        switch (tag) {
+            case 'e':
+                position += 4;
+                break;
+            case '@':
+                position += 2;
+                skipElementValuePairs();
+                break;
+            case '[':
+                int count = readShort();
+                for (int i = 0; i<count; i++) {
+                    skipElementValue();
+                } // for
+                break;
+            default:
+                position += 2;
+        } // switch
+    } // skipElementValue()
+
+
+    /**
+     * @return binary name of the class
+     */
+    String getName() {
+        return name;
+    } // getName()
+
+
+    /**
+     * @return access flags which use the same values as java.lang.reflect.Modifier for the relevant bits
+     */
+    int getAccessFlags() {
+        return accessFlags;
+    } // getAccessFlags()
+
+
+    /**
+     * @return binary name of the superclass - null for java.lang.Object
+     */
+    String getSuperclass() {
+        return superclass;
+    } // getSuperclass()
+
+
+    /**
+     * @return binary names of the directly implemented interfaces
+     */
+    List<String> getInterfaces() {
+        return interfaces;
+    } // getInterfaces()
+
+
+    /**
+     * @return binary names of the runtime visible annotations directly present on the class
+     */
+    List<String> getAnnotations() {
+        return annotations;
+    } // getAnnotations()
+
+} // ClassFile
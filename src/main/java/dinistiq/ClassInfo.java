@@ -0,0 +1,252 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * Metadata of a class known without loading the class itself.
+ *
+ * Holds the name, the modifiers, the names of the annotations present on the class - including inherited ones - and
+ * the names of all direct and indirect supertypes.
+ */
+public final class ClassInfo {
+
+    private static final String SEPARATOR = ",";
+
+    private static final String EMPTY = "-";
+
+    private final String name;
+
+    private final int modifiers;
+
+    private final Set<String> annotations;
+
+    private final Set<String> supertypes;
+
+
+    /**
+     * Create class metadata.
+     *
+     * @param name binary name of the class
+     * @param modifiers modifiers as defined in java.lang.reflect.Modifier
+     * @param annotations names of the annotation types present on the class
+     * @param supertypes names of all superclasses and implemented interfaces
+     */
+    public ClassInfo(String name, int modifiers, Set<String> annotations, Set<String> supertypes) {
+        this.name = name;
+        this.modifiers = modifiers;
+        this.annotations = Collections.unmodifiableSet(new LinkedHashSet<>(annotations));
+        this.supertypes = Collections.unmodifiableSet(new LinkedHashSet<>(supertypes));
+    } // ClassInfo()
+
+
+    /**
+     * @return binary name of the class
+     */
+    public String getName() {
+        return name;
+    } // getName()
+
+
+    /**
+     * @return modifiers as defined in java.lang.reflect.Modifier
+     */
+    public int getModifiers() {
+        return modifiers;
+    } // getModifiers()
+
+
+    /**
+     * @return names of the annotation types present on the class
+     */
+    public Set<String> getAnnotations() {
+        return annotations;
+    } // getAnnotations()
+
+
+    /**
+     * @return names of all superclasses and implemented interfaces
+     */
+    public Set<String> getSupertypes() {
+        return supertypes;
+    } // getSupertypes()
+
+
+    /**
+     * Tell if the class is an interface.
+     *
+     * @return true for interfaces and annotation types
+     */
+    public boolean isInterface() {
+        return Modifier.isInterface(modifiers);
+    } // isInterface()
+
+
+    /**
+     * Tell if the class cannot be instanciated because it is abstract.
+     *
+     * @return true for abstract classes and interfaces
+     */
+    public boolean isAbstract() {
+        return Modifier.isAbstract(modifiers);
+    } // isAbstract()
+
+
+    /**
+     * Tell if an annotation is present on the class.
+     *
+     * @param annotationName name of the annotation type
+     * @return true if the annotation is present
+     */
+    public boolean isAnnotated(String annotationName) {
+        return annotations.contains(annotationName);
+    } // isAnnotated()
+
+
+    /**
+     * Tell if instances of the class are assignable to a given type.
+     *
+     * @param typeName name of the type
+     * @return true if the type is the class itself or one of its supertypes
+     */
+    public boolean isSubtypeOf(String typeName) {
+        return name.equals(typeName)||supertypes.contains(typeName);
+    } // isSubtypeOf()
+
+
+    /**
+     * Load the class through the context class loader without initializing it.
+     *
+     * @param <T> generic type variable for the class
+     * @return loaded class
+     * @throws IllegalStateException if the class cannot be loaded
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Object> Class<T> load() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            return (Class<T>) Class.forName(name, false, (classLoader==null) ? ClassInfo.class.getClassLoader() : classLoader);
+        } catch (ClassNotFoundException|LinkageError e) {
+            throw new IllegalStateException("cannot load "+name, e);
+        } // try/catch
+    } // load()
+
+
+    /**
+     * Derive class metadata from a loaded class.
+     *
+     * @param cls loaded class
+     * @return class metadata
+     */
+    static ClassInfo of(Class<?> cls) {
+        Set<String> annotations = new LinkedHashSet<>();
+        for (Annotation annotation : cls.getAnnotations()) {
+            annotations.add(annotation.annotationType().getName());
+        } // for
+        Set<String> supertypes = new LinkedHashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(cls);
+        while (!queue.isEmpty()) {
+            Class<?> c = queue.poll();
+            List<Class<?>> direct = new ArrayList<>(List.of(c.getInterfaces()));
+            direct.add((c.getSuperclass()==null)&&(c!=Object.class) ? Object.class : c.getSuperclass());
+            for (Class<?> supertype : direct) {
+                if ((supertype!=null)&&supertypes.add(supertype.getName())) {
+                    queue.add(supertype);
+                } // if
+            } // for
+        } // while
+        int modifiers = cls.getModifiers()&(Modifier.PUBLIC|Modifier.FINAL|Modifier.ABSTRACT|Modifier.INTERFACE);
+        return new ClassInfo(cls.getName(), modifiers, annotations, supertypes);
+    } // of()
+
+
+    /**
+     * Format a set of names as a single token.
+     *
+     * @param names names to format
+     * @return comma separated names or a dash for the empty set
+     */
+    private static String format(Set<String> names) {
+        return names.isEmpty() ? EMPTY : String.join(SEPARATOR, names);
+    } // format()
+
+
+    /**
+     * Parse a set of names formatted as a single token.
+     *
+     * @param token comma separated names or a dash for the empty set
+     * @return set of names
+     */
+    private static Set<String> parseNames(String token) {
+        Set<String> result = new LinkedHashSet<>();
+        if (!EMPTY.equals(token)) {
+            Collections.addAll(result, token.split(SEPARATOR));
+        } // if
+        return result;
+    } // parseNames()
+
+
+    /**
+     * Format the metadata as a single line of text without line breaks.
+     *
+     * @return text representation which can be read back with parse()
+     */
+    public String format() {
+        return name+' '+modifiers+' '+format(annotations)+' '+format(supertypes);
+    } // format()
+
+
+    /**
+     * Read metadata from its text representation.
+     *
+     * @param text text as created by format()
+     * @return metadata described by the text
+     * @throws IllegalArgumentException if the text is not a valid representation
+     */
+    public static ClassInfo parse(String text) {
+        String[] tokens = text.trim().split(" ");
+        if (tokens.length!=4) {
+            throw new IllegalArgumentException("invalid class info '"+text+"'");
+        } // if
+        return new ClassInfo(tokens[0], Integer.parseInt(tokens[1]), parseNames(tokens[2]), parseNames(tokens[3]));
+    } // parse()
+
+
+    /**
+     * Describe the metadata for logging purposes.
+     *
+     * @return text representation of the metadata
+     */
+    @Override
+    public String toString() {
+        return format();
+    } // toString()
+
+} // ClassInfo
@@ -21,6 +21,7 @@ package dinistiq;
 import java.lang.annotation.Annotation;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.stream.Stream;
 
 
 /**
@@ -77,4 +78,21 @@ public interface ClassResolver {
      */
     SortedSet<String> getProperties(String path);
 
+
+    /**
+     * Get the metadata of all classes from the underlying packages as a lazily evaluated stream.
+     *
+     * Classes are not loaded to obtain the metadata, so callers can filter the stream before loading only the
+     * remaining classes with ClassInfo.load().
+     *
+     * The default implementation derives the metadata from the loaded classes returned by getSubclasses(Object.class)
+     * and thus only covers classes which are no interfaces and not abstract. Resolvers able to read the metadata
+     * without loading classes should override it.
+     *
+     * @return stream of class metadata
+     */
+    default Stream<ClassInfo> getClassInfos() {
+        return getSubclasses(Object.class).stream().map(ClassInfo::of);
+    } // getClassInfos()
+
 } // ClassResolver
@@ -0,0 +1,326 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+
+/**
+ * Directed graph of dependencies between nodes numbered from zero to size-1.
+ *
+ * Used to find an order of nodes where each node comes after all the nodes it depends on.
+ */
+final class DependencyGraph {
+
+    private final List<Set<Integer>> dependencies;
+
+    private final BitSet blocked = new BitSet();
+
+
+    /**
+     * Create a graph without any dependencies for a given number of nodes.
+     *
+     * @param size number of nodes
+     */
+    DependencyGraph(int size) {
+        dependencies = new ArrayList<>(size);
+        for (int i = 0; i<size; i++) {
+            dependencies.add(new LinkedHashSet<>());
+        } // for
+    } // DependencyGraph()
+
+
+    /**
+     * Record that a node depends on another node.
+     *
+     * @param node depending node
+     * @param dependency node the depending node needs to come after
+     */
+    void addDependency(int node, int dependency) {
+        dependencies.get(node).add(dependency);
+    } // addDependency()
+
+
+    /**
+     * Mark a node as not resolvable at all.
+     * Neither the node itself nor any node depending on it will be part of a sorted result.
+     *
+     * @param node node to block
+     */
+    void block(int node) {
+        blocked.set(node);
+    } // block()
+
+
+    /**
+     * Sort the nodes so that each node comes after its dependencies in linear time.
+     *
+     * Independent nodes keep their numbering order. Blocked nodes, nodes taking part in a cycle, and nodes depending
+     * on any of these are left out.
+     *
+     * @return list of nodes in dependency order
+     */
+    List<Integer> sort() {
+        int size = dependencies.size();
+        int[] pending = new int[size];
+        List<List<Integer>> dependents = new ArrayList<>(size);
+        for (int node = 0; node<size; node++) {
+            dependents.add(new ArrayList<>());
+        } // for
+        for (int node = 0; node<size; node++) {
+            for (int dependency : dependencies.get(node)) {
+                pending[node]++;
+                dependents.get(dependency).add(node);
+            } // for
+        } // for
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int node = 0; node<size; node++) {
+            if ((pending[node]==0)&&!blocked.get(node)) {
+                ready.add(node);
+            } // if
+        } // for
+        List<Integer> result = new ArrayList<>(size);
+        while (!ready.isEmpty()) {
+            int node = ready.poll();
+            result.add(node);
+            for (int dependent : dependents.get(node)) {
+                pending[dependent]--;
+                if ((pending[dependent]==0)&&!blocked.get(dependent)) {
+                    ready.add(dependent);
+                } // if
+            } // for
+        } // while
+        return result;
+    } // sort()
+
+
+    /**
+     * Group sorted nodes into levels where each node only depends on nodes of lower levels.
+     * Nodes of the same level are independent of each other.
+     *
+     * @param sortResult result of a previous call to sort()
+     * @return list of levels each containing nodes in sort order
+     */
+    List<List<Integer>> getLevels(List<Integer> sortResult) {
+        int[] levels = new int[dependencies.size()];
+        List<List<Integer>> result = new ArrayList<>();
+        for (int node : sortResult) {
+            int level = 0;
+            for (int dependency : dependencies.get(node)) {
+                level = Math.max(level, levels[dependency]+1);
+            } // for
+            levels[node] = level;
+            if (result.size()==level) {
+                result.add(new ArrayList<>());
+            } // if
+            result.get(level).add(node);
+        } // for
+        return result;
+    } // getLevels()
+
+
+    /**
+     * Find the shortest path along the dependencies from a node to another node of a set of nodes.
+     *
+     * @param from node to start from
+     * @param members nodes the path may pass
+     * @param target condition for the node to end the path at
+     * @return nodes of the path after the start node up to the target node or null if no target can be reached
+     */
+    private List<Integer> findPath(int from, BitSet members, IntPredicate target) {
+        Map<Integer, Integer> predecessors = new HashMap<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(from);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int dependency : dependencies.get(node)) {
+                if (members.get(dependency)&&!predecessors.containsKey(dependency)) {
+                    predecessors.put(dependency, node);
+                    if (target.test(dependency)) {
+                        List<Integer> path = new ArrayList<>();
+                        int step = dependency;
+                        do {
+                            path.add(0, step);
+                            step = predecessors.get(step);
+                        } while (step!=from);
+                        return path;
+                    } // if
+                    queue.add(dependency);
+                } // if
+            } // for
+        } // while
+        return null;
+    } // findPath()
+
+
+    /**
+     * Arrange the nodes of a strongly connected component as a closed walk along the dependencies.
+     *
+     * Starting from the first node the nearest node not yet visited is visited next until all nodes are covered and
+     * the walk returns to the first node. A simple cycle thus results in exactly the nodes of the cycle.
+     *
+     * @param component nodes which all depend directly or indirectly on each other
+     * @return list of nodes where each one depends on the next one and the last one on the first one
+     */
+    private List<Integer> getClosedWalk(List<Integer> component) {
+        BitSet members = new BitSet();
+        for (int node : component) {
+            members.set(node);
+        } // for
+        int first = component.get(0);
+        BitSet covered = new BitSet();
+        covered.set(first);
+        List<Integer> walk = new ArrayList<>();
+        walk.add(first);
+        int current = first;
+        while (covered.cardinality()<component.size()) {
+            for (int node : findPath(current, members, n -> !covered.get(n))) {
+                walk.add(node);
+                covered.set(node);
+                current = node;
+            } // for
+        } // while
+        List<Integer> back = findPath(current, members, n -> n==first);
+        walk.addAll(back.subList(0, back.size()-1));
+        return walk;
+    } // getClosedWalk()
+
+
+    /**
+     * Search for the strongly connected components among the nodes left out by a sort with Tarjan's algorithm.
+     */
+    private final class ComponentSearch {
+
+        private final BitSet sorted;
+
+        private final int[] indexes;
+
+        private final int[] lowlinks;
+
+        private final BitSet onStack = new BitSet();
+
+        private final Deque<Integer> stack = new ArrayDeque<>();
+
+        private final List<List<Integer>> components = new ArrayList<>();
+
+        private int count = 0;
+
+
+        /**
+         * Prepare the search ignoring the sorted nodes and the dependencies on them.
+         *
+         * @param sorted nodes already sorted
+         */
+        ComponentSearch(BitSet sorted) {
+            this.sorted = sorted;
+            indexes = new int[dependencies.size()];
+            lowlinks = new int[dependencies.size()];
+        } // ComponentSearch()
+
+
+        /**
+         * Find the components of all nodes not sorted.
+         *
+         * @return list of components each given as the list of its nodes in ascending order
+         */
+        List<List<Integer>> find() {
+            for (int node = sorted.nextClearBit(0); node<dependencies.size(); node = sorted.nextClearBit(node+1)) {
+                if (indexes[node]==0) {
+                    visit(node);
+                } // if
+            } // for
+            return components;
+        } // find()
+
+
+        /**
+         * Visit a node and all not yet visited nodes it depends on adding each completed component to the result.
+         *
+         * @param node node to visit
+         */
+        private void visit(int node) {
+            indexes[node] = ++count;
+            lowlinks[node] = count;
+            stack.push(node);
+            onStack.set(node);
+            for (int dependency : dependencies.get(node)) {
+                if (!sorted.get(dependency)) {
+                    if (indexes[dependency]==0) {
+                        visit(dependency);
+                        lowlinks[node] = Math.min(lowlinks[node], lowlinks[dependency]);
+                    } else if (onStack.get(dependency)) {
+                        lowlinks[node] = Math.min(lowlinks[node], indexes[dependency]);
+                    } // if
+                } // if
+            } // for
+            if (lowlinks[node]==indexes[node]) {
+                List<Integer> component = new ArrayList<>();
+                int member;
+                do {
+                    member = stack.pop();
+                    onStack.clear(member);
+                    component.add(member);
+                } while (member!=node);
+                Collections.sort(component);
+                components.add(component);
+            } // if
+        } // visit()
+
+    } // ComponentSearch
+
+
+    /**
+     * Find the cycles which prevented nodes from being sorted.
+     *
+     * Each node left out by a sort either takes part in a cycle, depends on a blocked node, or depends on one of these.
+     * The nodes left out are split into strongly connected components along the dependencies among themselves. Each
+     * component with more than one node or with a node depending on itself contains cycles - including the ones
+     * passing blocked nodes. Every member of such a component is reported in exactly one of the resulting cycles.
+     *
+     * @param sortResult result of a previous call to sort()
+     * @return list of cycles each given as the list of nodes where each one depends on the next one and the last one
+     * on the first one - nodes may occur more than once if a component consists of several intertwined cycles
+     */
+    List<List<Integer>> findCycles(List<Integer> sortResult) {
+        BitSet sorted = new BitSet(dependencies.size());
+        for (int node : sortResult) {
+            sorted.set(node);
+        } // for
+        List<List<Integer>> result = new ArrayList<>();
+        for (List<Integer> component : new ComponentSearch(sorted).find()) {
+            int first = component.get(0);
+            if ((component.size()>1)||dependencies.get(first).contains(first)) {
+                result.add(getClosedWalk(component));
+            } // if
+        } // for
+        result.sort((a, b) -> Integer.compare(a.get(0), b.get(0)));
+        return result;
+    } // findCycles()
+
+} // DependencyGraph
@@ -22,28 +22,33 @@ import java.beans.Introspector;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.SortedSet;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import jakarta.annotation.PostConstruct;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import jakarta.inject.Provider;
@@ -62,6 +67,20 @@ import org.slf4j.LoggerFactory;
  */
 public class Dinistiq {
 
+    /**
+     * Name of the scope value holding the number of threads used to instanciate beans and inject dependencies.
+     * The beans are processed in parallel - following their dependencies - if the value is greater than one.
+     * It can be given as a system property, an external bean, or as a value in a bean list file.
+     */
+    public static final String PARALLELISM = "dinistiq.parallelism";
+
+    /**
+     * Name of the scope value holding the number of threads used to call post construct methods.
+     * If the value is greater than one, the post construct methods of beans not depending on each other are called
+     * in parallel and all errors are collected and reported by failing the initialization.
+     */
+    public static final String POSTCONSTRUCT_PARALLELISM = "dinistiq.postconstruct.parallelism";
+
     private static final Logger LOG = LoggerFactory.getLogger(Dinistiq.class);
 
     private static final String PRODUCT_BASE_PATH = "dinistiq";
@@ -74,13 +93,22 @@ public class Dinistiq {
 
     private static final String SET_TYPE = "java.util.Set";
 
-    private static final Pattern REPLACEMENT_PATTERN = Pattern.compile("\\$\\{[a-zA-Z0-9_\\.]*\\}");
+    private static final Object[] NO_ARGUMENTS = new Object[0];
 
-    private final Map<String, String> environment = new HashMap<>(System.getenv());
+    private final SystemValues systemValues = new SystemValues();
 
     private final List<Object> orderedBeans = new ArrayList<>();
 
-    private final Map<String, Object> beans = new HashMap<>();
+    private final BeanRegistry beans = new BeanRegistry();
+
+    // Strings, boxed primitives, and literal collections don't take part in injection or post construct calls
+    private final BeanRegistry values = new BeanRegistry();
+
+    private final Map<String, Properties> propertiesByBean = new HashMap<>();
+
+    private boolean lookupProperties;
+
+    private final Map<String, ValueTemplate> templates = new ConcurrentHashMap<>();
 
 
     /**
@@ -121,21 +149,37 @@ public class Dinistiq {
     } // convert()
 
 
+    /**
+     * Tell if a bean is a plain value and thus needs no injection or post construct calls.
+     *
+     * @param bean bean to check
+     * @return true for strings, boxed primitives, and collections
+     */
+    private static boolean isValue(Object bean) {
+        return (bean instanceof CharSequence)||(bean instanceof Number)||(bean instanceof Boolean)||(bean instanceof Character)||(bean instanceof Collection);
+    } // isValue()
+
+
     /**
      * Find all beans of a given type.
      *
+     * Components and values are looked up through the type indexes of their separate registries.
+     *
      * @param <T> type to check resulting beans for
      * @param type instance of that type
      * @return Set of beans - may be empty but not null
      */
     public final <T extends Object> Set<T> findBeans(Class<T> type) {
         Set<T> result = new HashSet<>();
-        for (Object bean : beans.values()) {
-            if (type.isAssignableFrom(bean.getClass())) {
-                LOG.info("findBeans(:{}) adding {}", type.getName(), bean);
-                T b = convert(bean);
-                result.add(b);
-            } // if
+        for (Object bean : beans.getBeans(type).values()) {
+            LOG.info("findBeans(:{}) adding {}", type.getName(), bean);
+            T b = convert(bean);
+            result.add(b);
+        } // for
+        for (Object value : values.getBeans(type).values()) {
+            LOG.info("findBeans(:{}) adding value {}", type.getName(), value);
+            T v = convert(value);
+            result.add(v);
         } // for
         return result;
     } // findBeans()
@@ -149,14 +193,9 @@ public class Dinistiq {
      * @return Set of bean names - may be empty but not null
      */
     public final <T extends Object> Set<String> findNames(Class<T> type) {
-        Set<String> result = new HashSet<>();
-        for (String name : beans.keySet()) {
-            Object bean = beans.get(name);
-            if (type.isAssignableFrom(bean.getClass())) {
-                LOG.info("findNames(:{}) adding {}", type.getName(), bean);
-                result.add(name);
-            } // if
-        } // for
+        Set<String> result = beans.getNames(type);
+        result.addAll(values.getNames(type));
+        LOG.info("findNames(:{}) {}", type.getName(), result);
         return result;
     } // findNames()
 
@@ -206,7 +245,7 @@ public class Dinistiq {
      */
     public final <T extends Object> T findBean(Class<? extends T> cls, String name) {
         T result = null;
-        Object bean = beans.get(name);
+        Object bean = getNamedValue(name);
         if (bean!=null) {
             LOG.info("findBean() {} :{}", name, bean.getClass().getName());
             if (cls.isAssignableFrom(bean.getClass())) {
@@ -217,6 +256,44 @@ public class Dinistiq {
     } // findBean()
 
 
+    /**
+     * Check if beans of a given class fulfill all the given qualifiers.
+     * If no qualifiers are given, classes with qualifiers other than at Named are not accepted.
+     *
+     * @param beanClass class of the bean to check
+     * @param <Q> Qualifier type constraint
+     * @param qualifiers collection of qualifiers to check the bean class for
+     * @return true if the bean class can be used for the given qualifiers
+     */
+    private <Q extends Annotation> boolean isQualified(Class<? extends Object> beanClass, Collection<Q> qualifiers) {
+        boolean add = true;
+        if (qualifiers.isEmpty()) {
+            for (Annotation a : beanClass.getAnnotations()) {
+                Class<? extends Annotation> type = a.annotationType();
+                if (type.getAnnotation(Qualifier.class)!=null) {
+                    // Note: PMD doesn't do Auto-Boxing for the last parameter on checking
+                    LOG.debug("isQualified() acceptable qualifier {}? {}", type.getSimpleName(), type==Named.class);
+                    // don't add if the class is qualified but no qualifier is asked for in the collection.1
+                    add = add&&(type==Named.class);
+                    LOG.info("isQualified() would add {}. ({})", beanClass.getName(), add);
+                } // if
+            } // for
+        } // if
+        for (Q qualifier : qualifiers) {
+            Class<? extends Annotation> annotationType = qualifier.annotationType();
+            if (annotationType.getAnnotation(Qualifier.class)==null) {
+                throw new RuntimeException("Not a qualifier: "+annotationType+" ("+qualifier.getClass().getName()+")");
+            } // if
+            String annotationTypeName = annotationType.getSimpleName();
+            String beanClassName = beanClass.getSimpleName();
+            // Note: PMD doesn't do Auto-Boxing for the last two parameters on checking
+            LOG.debug("isQualified() checking {}|{} ({} || {})", annotationTypeName, beanClassName, beanClass.getAnnotation(annotationType)!=null, beanClassName.startsWith(annotationTypeName));
+            add = add&&((beanClass.getAnnotation(annotationType)!=null)||(beanClassName.startsWith(annotationTypeName)));
+        } // for
+        return add;
+    } // isQualified()
+
+
     /**
      * Find all beans with a given qualifier from a given set.
      *
@@ -230,32 +307,7 @@ public class Dinistiq {
         Set<T> result = new HashSet<>();
         for (T bean : beanSet) {
             LOG.debug("findQualifiedBeans() checking {} for {}", bean, qualifiers);
-            boolean add = true;
-            Class<? extends Object> beanClass = bean.getClass();
-            if (qualifiers.isEmpty()) {
-                for (Annotation a : beanClass.getAnnotations()) {
-                    Class<? extends Annotation> type = a.annotationType();
-                    if (type.getAnnotation(Qualifier.class)!=null) {
-                        // Note: PMD doesn't do Auto-Boxing for the last parameter on checking
-                        LOG.debug("findQualifiedBeans() acceptable qualifier {}? {}", type.getSimpleName(), type==Named.class);
-                        // don't add if the class is qualified but no qualifier is asked for in the collection.1
-                        add = add&&(type==Named.class);
-                        LOG.info("findQualifiedBeans() would add {}. ({})", bean, add);
-                    } // if
-                } // for
-            } // if
-            for (Q qualifier : qualifiers) {
-                Class<? extends Annotation> annotationType = qualifier.annotationType();
-                if (annotationType.getAnnotation(Qualifier.class)==null) {
-                    throw new RuntimeException("Not a qualifier: "+annotationType+" ("+qualifier.getClass().getName()+")");
-                } // if
-                String annotationTypeName = annotationType.getSimpleName();
-                String beanClassName = beanClass.getSimpleName();
-                // Note: PMD doesn't do Auto-Boxing for the last two parameters on checking
-                LOG.debug("findQualifiedBeans() checking {}|{} ({} || {})", annotationTypeName, beanClassName, beanClass.getAnnotation(annotationType)!=null, beanClassName.startsWith(annotationTypeName));
-                add = add&&((beanClass.getAnnotation(annotationType)!=null)||(beanClassName.startsWith(annotationTypeName)));
-            } // for
-            if (add) {
+            if (isQualified(bean.getClass(), qualifiers)) {
                 LOG.debug("findQualifiedBeans() found qualified bean {}", bean);
                 result.add(bean);
             } // if
@@ -298,10 +350,22 @@ public class Dinistiq {
      * @return collection of all bean names
      */
     public Collection<String> getAllBeanNames() {
-        return beans.keySet();
+        Set<String> result = beans.names();
+        result.addAll(values.names());
+        return result;
     } // getAllBeanNames()
 
 
+    /**
+     * Return the names of all beans in the dinistiq scope which are no plain values.
+     *
+     * @return collection of the component names
+     */
+    public Collection<String> getComponentNames() {
+        return beans.names();
+    } // getComponentNames()
+
+
     /**
      * Simple private class to generate provider implementations from the dinistiq scope on the fly.
      */
@@ -342,6 +406,21 @@ public class Dinistiq {
     } // ImplicitProvider
 
 
+    /**
+     * Record a dependency of a bean if the given value is a bean from the scope.
+     *
+     * @param dependencies dependencies map to record the dependency in - may be null
+     * @param customer name of the bean depending on the value
+     * @param value value to record as a dependency if it is a bean instance from the scope
+     */
+    private void addDependency(Map<String, Set<Integer>> dependencies, String customer, Object value) {
+        int ordinal = beans.getOrdinal(value);
+        if ((dependencies!=null)&&(ordinal>=0)) {
+            dependencies.get(customer).add(ordinal);
+        } // if
+    } // addDependency()
+
+
     /**
      * Tries to resolve the value for a given placeholder.
      *
@@ -355,7 +434,7 @@ public class Dinistiq {
      * @return replaced value or original string
      * @throws Exception
      */
-    private Object getValue(Properties beanProperties, Map<String, Set<Object>> dependencies, String customer, Class<?> cls, Type type, String name, Collection<Annotation> qualifiers) {
+    private Object getValue(Properties beanProperties, Map<String, Set<Integer>> dependencies, String customer, Class<?> cls, Type type, String name, Collection<Annotation> qualifiers) {
         LOG.debug("getValue() expecting qualifiers {} for {} :{}", qualifiers, name, cls.getSimpleName());
         ParameterizedType parameterizedType = (type instanceof ParameterizedType) ? (ParameterizedType) type : null;
         if ((name==null)&&Collection.class.isAssignableFrom(cls)) {
@@ -365,13 +444,13 @@ public class Dinistiq {
                 LOG.debug("getValue() inner type {}", collectionType);
                 Collection<? extends Object> resultCollection = findBeans((Class<? extends Object>) collectionType);
                 resultCollection = List.class.isAssignableFrom(cls) ? new ArrayList<>(resultCollection) : resultCollection;
-                if (dependencies!=null) {
-                    dependencies.get(customer).addAll(resultCollection);
-                } // if
+                for (Object element : resultCollection) {
+                    addDependency(dependencies, customer, element);
+                } // for
                 return resultCollection;
             } // if
         } // if
-        Object bean = (name==null) ? findBean(cls, qualifiers) : (beanProperties.containsKey(name) ? getReferenceValue(beanProperties.getProperty(name)) : beans.get(name));
+        Object bean = (name==null) ? findBean(cls, qualifiers) : (beanProperties.containsKey(name) ? getReferenceValue(beanProperties.getProperty(name)) : getNamedValue(name));
         if (Provider.class.equals(cls)) {
             Dinistiq d = this;
             Class<? extends Object> c = (Class<?>) parameterizedType.getActualTypeArguments()[0];
@@ -384,9 +463,7 @@ public class Dinistiq {
             beans.put(beanName, bean);
         } // if
         if (cls.isAssignableFrom(bean.getClass())) {
-            if ((dependencies!=null)&&beans.containsValue(bean)) {
-                dependencies.get(customer).add(bean);
-            } // if
+            addDependency(dependencies, customer, bean);
             return bean;
         } // if
         throw new RuntimeException("for "+customer+": no bean "+(name==null ? "of type " : name+" :")+cls.getSimpleName()+" found.");
@@ -398,32 +475,15 @@ public class Dinistiq {
      *
      * @param dependencies map of dependencies for beans - pass null if you don't want to record needed dependencies
      * @param beanName name of the bean
-     * @param types types array for the call
-     * @param genericTypes generic type array for the call
-     * @param annotations annotations of the parameters
+     * @param points injection points of the parameters
      * @return array suitable as parameter for invoke or newInstance calls
-     * @throws Exception
      */
-    private Object[] getParameters(Properties properties, Map<String, Set<Object>> dependencies, String beanName, Class<? extends Object>[] types, Type[] genericTypes, Annotation[][] annotations) {
-        Object[] parameters = new Object[types.length];
-        for (int i = 0; i<types.length; i++) {
-            String name = null;
-            Collection<Annotation> qualifiers = new HashSet<>();
-            for (Annotation a : annotations[i]) {
-                if (a instanceof Named) {
-                    name = ((Named) a).value();
-                } // if
-                boolean q = false;
-                for (Class<?> ii : a.getClass().getInterfaces()) {
-                    LOG.info("getParameters() {}: {}", ii, ii.getAnnotation(Qualifier.class));
-                    q = q||(ii.getAnnotation(Qualifier.class)!=null);
-                } // for
-                if (q) {
-                    qualifiers.add(a);
-                } // if
-            } // for
+    private Object[] getParameters(Properties properties, Map<String, Set<Integer>> dependencies, String beanName, List<InjectionPlan.InjectionPoint> points) {
+        Object[] parameters = new Object[points.size()];
+        for (int i = 0; i<parameters.length; i++) {
+            InjectionPlan.InjectionPoint point = points.get(i);
             // TODO: Deal with scopes.
-            parameters[i] = getValue(properties==null ? new Properties() : properties, dependencies, beanName, types[i], genericTypes[i], name, qualifiers);
+            parameters[i] = getValue(properties==null ? new Properties() : properties, dependencies, beanName, point.getType(), point.getGenericType(), point.getName(), point.getQualifiers());
         } // for
         return parameters;
     } // getParameters()
@@ -436,29 +496,16 @@ public class Dinistiq {
      * @param beanName beans name in the scope using the given dependencies
      * @param dependencies dependencies within the scope
      */
-    private <T extends Object> T createInstance(Class<T> cls, String beanName, Map<String, Set<Object>> dependencies) {
+    private <T extends Object> T createInstance(Class<T> cls, String beanName, Map<String, Set<Integer>> dependencies) {
         try {
             LOG.info("createInstance({})", cls.getSimpleName());
-            Constructor<?> c = null;
-            Constructor<?>[] constructors = cls.getDeclaredConstructors();
-            LOG.debug("createInstance({}) constructors.length={}", cls.getSimpleName(), constructors.length);
-            for (Constructor<?> ctor : constructors) {
-                // Note: PMD doesn't do Auto-Boxing for the last parameter on checking
-                LOG.debug("createInstance({}) {} ({})", cls.getSimpleName(), ctor, ctor.getAnnotation(Inject.class)!=null);
-                c = (ctor.getAnnotation(Inject.class)==null) ? c : ctor;
-            } // for
-            c = (c==null) ? cls.getConstructor() : c;
+            InjectionPlan plan = InjectionPlan.forClass(cls);
             // Don't record constructor dependencies - they MUST already be fulfilled
-            Object[] parameters = getParameters(null, null, beanName, c.getParameterTypes(), c.getGenericParameterTypes(), c.getParameterAnnotations());
+            Object[] parameters = getParameters(null, null, beanName, plan.getConstructorParameters());
+            Object bean = plan.newInstance(parameters);
             dependencies.put(beanName, new HashSet<>());
-            boolean accessible = c.canAccess(null);
-            try {
-                c.setAccessible(true); // NOPMD - PMD doesn't like the idea of DI frameworks
-                return convert(c.newInstance(parameters));
-            } finally {
-                c.setAccessible(accessible); // NOPMD - PMD doesn't like the idea of DI frameworks
-            } // try/finally
-        } catch (NoSuchMethodException|InstantiationException|IllegalAccessException|InvocationTargetException e) {
+            return convert(bean);
+        } catch (NoSuchMethodException|InvocationTargetException e) {
             throw new RuntimeException(e);
         }
     } // createInstance()
@@ -491,7 +538,7 @@ public class Dinistiq {
      * @param name optional name - if null the name is taken from the at Named annotation or from the class name otherwise
      * @throws Exception when instanciation is not possible for whatever reason
      */
-    private void createAndRegisterInstance(Class<? extends Object> cls, String name, Map<String, Set<Object>> dependencies) {
+    private void createAndRegisterInstance(Class<? extends Object> cls, String name, Map<String, Set<Integer>> dependencies) {
         LOG.info("createAndRegisterInstance({}) cls={}", name, cls);
         String beanName = getBeanName(cls, name);
         Object bean = createInstance(cls, beanName, dependencies);
@@ -503,21 +550,57 @@ public class Dinistiq {
      * Calls a method annotated as post construct on a given bean if available.
      *
      * @param bean bean to check and call post contruct annotated method on
+     * @param errors collection to add errors to - errors are only logged if null
      */
-    private void callPostConstruct(Object bean) {
-        for (Method m : bean.getClass().getMethods()) {
-            if (m.getAnnotation(PostConstruct.class)!=null) {
-                LOG.info("() post construct method on {}: {}", bean, m.getName());
-                try {
-                    m.invoke(bean, new Object[0]);
-                } catch (IllegalAccessException|IllegalArgumentException|InvocationTargetException ex) {
-                    LOG.error("() error calling post constructor "+m.getName()+" at "+bean+" :"+bean.getClass().getName(), ex);
-                } // try/catch
-            } // if
+    private void callPostConstruct(Object bean, Collection<Exception> errors) {
+        for (InjectionPlan.MethodInjection injection : InjectionPlan.forClass(bean.getClass()).getPostConstructMethods()) {
+            Method m = injection.getMethod();
+            LOG.info("() post construct method on {}: {}", bean, m.getName());
+            try {
+                injection.invoke(bean, NO_ARGUMENTS);
+            } catch (InvocationTargetException ex) {
+                String message = "error calling post constructor "+m.getName()+" at "+bean+" :"+bean.getClass().getName();
+                LOG.error("() "+message, ex);
+                if (errors!=null) {
+                    errors.add(new RuntimeException(message, ex));
+                } // if
+            } // try/catch
         } // for
     } // callPostConstruct()
 
 
+    /**
+     * Calls the post construct methods of groups of beans one group after the other.
+     * The beans within each group are handled in parallel and errors are collected.
+     *
+     * @param groups groups of beans where each group only depends on beans of the groups before
+     * @param parallelism number of threads to use
+     * @throws RuntimeException if any of the post construct methods failed
+     */
+    private void callPostConstruct(List<List<Object>> groups, int parallelism) {
+        ExecutorService executor = new ForkJoinPool(parallelism);
+        try {
+            Collection<Exception> errors = new ConcurrentLinkedQueue<>();
+            for (List<Object> group : groups) {
+                List<Runnable> tasks = new ArrayList<>(group.size());
+                for (Object bean : group) {
+                    tasks.add(() -> callPostConstruct(bean, errors));
+                } // for
+                execute(executor, tasks);
+                if (!errors.isEmpty()) {
+                    RuntimeException e = new RuntimeException(errors.size()+" post construct method(s) failed");
+                    for (Exception error : errors) {
+                        e.addSuppressed(error);
+                    } // for
+                    throw e;
+                } // if
+            } // for
+        } finally {
+            executor.shutdown();
+        } // try/finally
+    } // callPostConstruct()
+
+
     /**
      * Common initialization parts of createBean() and initBean().
      *
@@ -525,11 +608,11 @@ public class Dinistiq {
      * @param name name of the bean - may not be null!
      * @param dependencies dummy dependency collector but must be the same troughout the process.
      */
-    private void initBean(Object bean, String name, Map<String, Set<Object>> dependencies) {
+    private void initBean(Object bean, String name, Map<String, Set<Integer>> dependencies) {
         try {
             // TODO: Deal with scopes.
             injectDependencies(name, bean, dependencies);
-            callPostConstruct(bean);
+            callPostConstruct(bean, null);
         } catch (Exception e) {
             LOG.error("initBean() "+bean.getClass(), e);
         } // try/catch
@@ -547,7 +630,7 @@ public class Dinistiq {
     public <T extends Object> T createBean(Class<T> cls, String name) {
         try {
             String beanName = getBeanName(cls, name);
-            Map<String, Set<Object>> dependencies = new HashMap<>();
+            Map<String, Set<Integer>> dependencies = new HashMap<>();
             T bean = createInstance(cls, beanName, dependencies);
             initBean(bean, beanName, dependencies);
             return bean;
@@ -565,131 +648,154 @@ public class Dinistiq {
      */
     public void initBean(Object bean, String name) {
         String beanName = getBeanName(bean.getClass(), name);
-        Map<String, Set<Object>> dependencies = new HashMap<>();
+        Map<String, Set<Integer>> dependencies = new HashMap<>();
         dependencies.put(beanName, new HashSet<>());
         initBean(bean, beanName, dependencies);
     } //  initBean()
 
 
     /**
-     * Get properties according to standard directory scheme from defaults and specialized properties for a given key.
+     * Load the properties files from dinistiq/defaults and dinistiq/beans for all beans at once.
+     *
+     * All resources with the same defaults name are merged while for the specialized values only the first resource
+     * on the class path is used. Specialized values take precedence over the defaults.
+     *
+     * @param propertiesFilenames names of all properties resources in the dinistiq/ path
+     * @throws IOException on read errors
+     */
+    private void preloadProperties(SortedSet<String> propertiesFilenames) throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        String defaultsPath = PRODUCT_BASE_PATH+"/defaults/";
+        String beansPath = PRODUCT_BASE_PATH+"/beans/";
+        for (String propertyResource : propertiesFilenames) {
+            String key = getPropertiesKey(propertyResource, defaultsPath);
+            if (key!=null) {
+                Properties beanProperties = propertiesByBean.computeIfAbsent(key, k -> new Properties());
+                Enumeration<URL> resources = classLoader.getResources(propertyResource);
+                while (resources.hasMoreElements()) {
+                    LOG.debug("preloadProperties({}) loading defaults from {}", key, propertyResource);
+                    try (InputStream stream = resources.nextElement().openStream()) {
+                        beanProperties.load(stream);
+                    } // try
+                } // while
+            } // if
+        } // for
+        for (String propertyResource : propertiesFilenames) {
+            String key = getPropertiesKey(propertyResource, beansPath);
+            if (key!=null) {
+                Properties beanProperties = propertiesByBean.computeIfAbsent(key, k -> new Properties());
+                try (InputStream stream = classLoader.getResourceAsStream(propertyResource)) {
+                    LOG.debug("preloadProperties({}) loading bean values from {}", key, propertyResource);
+                    if (stream!=null) {
+                        beanProperties.load(stream);
+                    } // if
+                } // try
+            } // if
+        } // for
+        LOG.info("preloadProperties() properties for {} beans", propertiesByBean.size());
+        if (propertiesByBean.isEmpty()) {
+            lookupProperties = true;
+            LOG.warn("preloadProperties() class resolver reports no files in {} or {} - looking them up for each bean", defaultsPath, beansPath);
+        } // if
+    } // preloadProperties()
+
+
+    /**
+     * Derive the bean name from the name of a properties resource in a given folder.
+     *
+     * @param propertyResource name of the properties resource
+     * @param path folder including the trailing slash
+     * @return name of the bean or null if the resource is not a properties file directly in the folder
+     */
+    private static String getPropertiesKey(String propertyResource, String path) {
+        String suffix = ".properties";
+        if (!propertyResource.startsWith(path)||!propertyResource.endsWith(suffix)||(propertyResource.indexOf('/', path.length())>=0)) {
+            return null;
+        } // if
+        return propertyResource.substring(path.length(), propertyResource.length()-suffix.length());
+    } // getPropertiesKey()
+
+
+    /**
+     * Look up properties files for a given key on the class path.
+     * Used when the class resolver doesn't report any properties files for the beans.
      *
      * @param key key resembling the properties file name to look for in dinistiq/defaults and dinistiq/beans
      * resources folder
-     * @return map collected from defaults and specialized values
-     * @throws IOException
+     * @param beanProperties properties to add the values from the files to
+     * @throws IOException on read errors
      */
-    private Properties getProperties(String key) throws IOException {
-        Properties beanProperties = new Properties();
+    private void lookupProperties(String key, Properties beanProperties) throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
         String defaultsName = PRODUCT_BASE_PATH+"/defaults/"+key+".properties";
-        Enumeration<URL> resources = Thread.currentThread().getContextClassLoader().getResources(defaultsName);
-        LOG.debug("getProperties({}) searching defaults {} {}", key, defaultsName, resources);
+        Enumeration<URL> resources = classLoader.getResources(defaultsName);
         while (resources.hasMoreElements()) {
-            URL resource = resources.nextElement();
-            LOG.debug("getProperties({}) loading defaults from {}", key, defaultsName);
-            beanProperties.load(resource.openStream());
+            LOG.debug("lookupProperties({}) loading defaults from {}", key, defaultsName);
+            try (InputStream stream = resources.nextElement().openStream()) {
+                beanProperties.load(stream);
+            } // try
         } // while
         String beanValuesName = PRODUCT_BASE_PATH+"/beans/"+key+".properties";
-        try (InputStream beanStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(beanValuesName)) {
-            LOG.debug("getProperties({}) searching bean values {} {}", key, beanValuesName, beanStream);
-            if (beanStream!=null) {
-                LOG.debug("getProperties({}) loading bean values from {}", key, beanValuesName);
-                beanProperties.load(beanStream);
+        try (InputStream stream = classLoader.getResourceAsStream(beanValuesName)) {
+            if (stream!=null) {
+                LOG.debug("lookupProperties({}) loading bean values from {}", key, beanValuesName);
+                beanProperties.load(stream);
             } // if
-        }
-        return beanProperties;
-    } // getProperties()
+        } // try
+    } // lookupProperties()
 
 
     /**
-     * Tries to convert the given value as an object reference or string pattern replacement.
+     * Get properties according to standard directory scheme from defaults and specialized properties for a given key.
      *
-     * @param propertyValue
-     * @return referenced object or original string if unavailable
+     * @param key key resembling the properties file name to look for in dinistiq/defaults and dinistiq/beans
+     * resources folder
+     * @return map collected from defaults and specialized values
      */
-    private Object getReferenceValue(String propertyValue) {
-        Object result = propertyValue;
-        if (propertyValue.startsWith("${")) {
-            String referenceName = propertyValue.substring(2, propertyValue.length()-1);
-            LOG.debug("getReferenceValue({}) {}", propertyValue, referenceName);
-            result = beans.containsKey(referenceName) ? beans.get(referenceName) : result;
-        } // if
-        if (result instanceof String) {
-            String stringValue = (String) result;
-            Pattern p = REPLACEMENT_PATTERN;
-            Matcher m = p.matcher(stringValue);
-            while (m.find()) {
-                LOG.debug("getReferenceValue({}) string replacement in {}", propertyValue, stringValue);
-                String name = m.group();
-                name = name.substring(2, name.length()-1);
-                LOG.debug("getReferenceValue({}) replacing {}", propertyValue, name);
-                String replacement = beans.containsKey(name) ? ""+beans.get(name) : (environment.containsKey(name) ? environment.get(name) : "__UNKNOWN__");
-                stringValue = stringValue.replace("${"+name+"}", replacement);
-                m = p.matcher(stringValue);
-            } // while
-            result = stringValue;
+    private Properties getProperties(String key) {
+        Properties result = new Properties();
+        Properties beanProperties = propertiesByBean.get(key);
+        if (beanProperties!=null) {
+            result.putAll(beanProperties);
+        } else if (lookupProperties) {
+            try {
+                lookupProperties(key, result);
+            } catch (IOException e) {
+                LOG.error("getProperties() cannot read properties for "+key, e);
+            } // try/catch
         } // if
+        LOG.debug("getProperties({}) {}", key, result.keySet());
         return result;
-    } // getReferenceValue()
+    } // getProperties()
 
 
     /**
-     * Store URL parts of a given named value with suffixed names in a given map of config values.
+     * Get a named value from the scope falling back to system properties and environment variables.
      *
-     * @param name base name of the parts
-     * @param value original value of the property
-     * @param values map to store split values in
+     * @param name name of the value
+     * @return value or null if neither a bean nor a system value of that name exists
      */
-    private void storeUrlParts(String name, String value, Map<String, Object> values) {
-        // split
-        int idx = value.indexOf("://");
-        if ((idx>0)&&(value.length()>idx+5)) {
-            // Might be a URL
-            try {
-                LOG.info("storeUrlParts() splitting {} ({})", value, name);
-                String protocol = value.substring(0, idx);
-                values.put(name+".protocol", protocol);
-                idx += 3;
-                String host = value.substring(idx);
-                String uri = "";
-                idx = host.indexOf('/');
-                if (idx>0) {
-                    uri = host.substring(idx+1);
-                    host = host.substring(0, idx);
-                } // if
-                if (isNotBlank(uri)) {
-                    values.put(name+".uri", uri);
-                } // if
-                String username = "";
-                idx = host.indexOf('@');
-                if (idx>0) {
-                    username = host.substring(0, idx);
-                    host = host.substring(idx+1);
-                } // if
-                String[] userinfos = username.split(":");
-                if (userinfos.length>1) {
-                    username = userinfos[0];
-                    values.put(name+".password", userinfos[1]);
-                } // if
-                if (isNotBlank(username)) {
-                    values.put(name+".username", username);
-                } // if
+    private Object getNamedValue(String name) {
+        Object result = beans.get(name);
+        result = (result==null) ? values.get(name) : result;
+        return (result==null) ? systemValues.get(name) : result;
+    } // getNamedValue()
 
-                String port = "";
-                idx = host.indexOf(':');
-                if (idx>0) {
-                    port = host.substring(idx+1);
-                    host = host.substring(0, idx);
-                } // if
-                values.put(name+".host", host);
-                if (isNotBlank(port)) {
-                    values.put(name+".port", port);
-                } // if
-            } catch (Exception e) {
-                LOG.error("storeUrlParts() error reading "+value+" as a url", e);
-            } // try/catch
-        } // if
-    } // storeUrlParts()
+
+    /**
+     * Tries to convert the given value as an object reference or string pattern replacement.
+     *
+     * Each value is parsed only once and the resulting template is reused for later evaluations.
+     *
+     * @param propertyValue
+     * @return referenced object or original string if unavailable
+     */
+    private Object getReferenceValue(String propertyValue) {
+        ValueTemplate template = templates.computeIfAbsent(propertyValue, ValueTemplate::compile);
+        Object result = template.resolve(this::getNamedValue);
+        LOG.debug("getReferenceValue({}) {}", propertyValue, result);
+        return result;
+    } // getReferenceValue()
 
 
     /**
@@ -718,20 +824,16 @@ public class Dinistiq {
      * @param beanClassName full name of the class of the given bean
      * @throws SecurityException
      */
-    private void callMethodsWithAnnotatedInjection(Object bean, String key, Properties beanProperties, Map<String, Set<Object>> dependencies, String beanClassName) {
-        for (Method m : bean.getClass().getMethods()) {
-            if (m.getAnnotation(Inject.class)!=null) {
-                LOG.debug("callMethodsWithAnnotatedInjection({}) inject parameters on method {}", key, m.getName());
-                Class<? extends Object>[] parameterTypes = m.getParameterTypes();
-                Type[] genericParameterTypes = m.getGenericParameterTypes();
-                Annotation[][] parameterAnnotations = m.getParameterAnnotations();
-                Object[] parameters = getParameters(beanProperties, dependencies, key, parameterTypes, genericParameterTypes, parameterAnnotations);
-                try {
-                    m.invoke(bean, parameters);
-                } catch (IllegalAccessException|IllegalArgumentException|InvocationTargetException ex) {
-                    LOG.error("callMethodsWithAnnotatedInjection() error injecting for method "+m.getName()+" at '"+key+"' :"+beanClassName, ex);
-                } // try/catch
-            } // if
+    private void callMethodsWithAnnotatedInjection(Object bean, String key, Properties beanProperties, Map<String, Set<Integer>> dependencies, String beanClassName) {
+        for (InjectionPlan.MethodInjection injection : InjectionPlan.forClass(bean.getClass()).getMethods()) {
+            Method m = injection.getMethod();
+            LOG.debug("callMethodsWithAnnotatedInjection({}) inject parameters on method {}", key, m.getName());
+            Object[] parameters = getParameters(beanProperties, dependencies, key, injection.getParameters());
+            try {
+                injection.invoke(bean, parameters);
+            } catch (InvocationTargetException ex) {
+                LOG.error("callMethodsWithAnnotatedInjection() error injecting for method "+m.getName()+" at '"+key+"' :"+beanClassName, ex);
+            } // try/catch
         } // for
     } // callMethodsWithAnnotatedInjection()
 
@@ -739,48 +841,38 @@ public class Dinistiq {
     /**
      * Prepare parameters for injection call.
      *
-     * @param isBoolean tell if a boolean is to be injected
+     * @param binder binder of the property to prepare the value for
      * @param propertyValue string description of the value
-     * @param parameterType type of the parameter
-     * @param isCollection tell if collection is to be injected
      * @param dependencies dependencies in scope
      * @param key
      * @return parameter array of size 1
      * @throws NumberFormatException
      */
-    private Object[] prepareParameter(boolean isBoolean, String propertyValue, Class<?> parameterType, boolean isCollection, Map<String, Set<Object>> dependencies, String key) {
+    private Object[] prepareParameter(InjectionPlan.PropertyBinder binder, String propertyValue, Map<String, Set<Integer>> dependencies, String key) {
         Object[] parameters = new Object[1];
         parameters[0] = getReferenceValue(propertyValue);
-        if (isBoolean&&(parameters[0] instanceof String)) {
+        if (binder.isBoolean()&&(parameters[0] instanceof String)) {
             parameters[0] = Boolean.valueOf(propertyValue);
         } // if
-        if ("long".equals(parameterType.getName())) {
-            parameters[0] = Long.valueOf(propertyValue);
+        Object number = binder.convert(propertyValue);
+        if (number!=null) {
+            parameters[0] = number;
         } // if
-        if ("int".equals(parameterType.getName())) {
-            parameters[0] = Integer.valueOf(propertyValue);
-        } // if
-        if ("float".equals(parameterType.getName())) {
-            parameters[0] = Float.valueOf(propertyValue);
-        } // if
-        if ("double".equals(parameterType.getName())) {
-            parameters[0] = Double.valueOf(propertyValue);
-        } // if
-        if (isCollection) {
+        if (binder.isCollection()) {
             if (!Collection.class.isAssignableFrom(parameters[0].getClass())) {
-                Collection<Object> values = List.class.isAssignableFrom(parameterType) ? new ArrayList<>() : new HashSet<>();
+                Collection<Object> values = List.class.isAssignableFrom(binder.getParameterType()) ? new ArrayList<>() : new HashSet<>();
                 for (String value : propertyValue.split(",")) {
                     Object effectiveValue = getReferenceValue(value);
                     values.add(effectiveValue);
-                    if ((dependencies!=null)&&(value.contains("${"))&&beans.containsValue(effectiveValue)) {
-                        dependencies.get(key).add(effectiveValue);
+                    if (value.contains("${")) {
+                        addDependency(dependencies, key, effectiveValue);
                     } // if
                 } // for
                 parameters[0] = values;
             } // if
         } else {
-            if ((dependencies!=null)&&(beans.containsValue(parameters[0]))&&(propertyValue.contains("${"))) {
-                dependencies.get(key).add(parameters[0]);
+            if (propertyValue.contains("${")) {
+                addDependency(dependencies, key, parameters[0]);
             } // if
         } // if
         return parameters;
@@ -797,34 +889,20 @@ public class Dinistiq {
      * @param dependencies already collected dependencies
      * @throws SecurityException
      */
-    private void injectPropertiesFromFiles(Object bean, String beanClassName, Properties beanProperties, String key, Map<String, Set<Object>> dependencies) {
+    private void injectPropertiesFromFiles(Object bean, String beanClassName, Properties beanProperties, String key, Map<String, Set<Integer>> dependencies) {
         // TODO: Deal with scopes - do we need a second scope variable besides beans to hold "dependent" scope beans while injecting?
+        InjectionPlan plan = InjectionPlan.forClass(bean.getClass());
         for (String property : beanProperties.stringPropertyNames()) {
-            String methodName = "set"+Character.toUpperCase(property.charAt(0))+property.substring(1);
-            LOG.debug("injectPropertiesFromFiles({}) {} -> {}", key, property, methodName);
-            Method m = null;
-            // Have to find it just by name
-            for (Method me : bean.getClass().getMethods()) {
-                if (me.getName().equals(methodName)&&(me.getParameterTypes().length>0)) {
-                    m = me;
-                } // if
-            } // for
-            if (m==null) {
-                LOG.warn("injectPropertiesFromFiles({}) no setter method found for property {}", key, property);
-            } else {
-                String propertyName = Introspector.decapitalize(m.getName().substring(3));
-                Class<?> parameterType = m.getParameterTypes()[0];
-                Type genericType = m.getGenericParameterTypes()[0];
-                LOG.debug("injectPropertiesFromFiles({}) writable property found {} :{} {}", key, propertyName, parameterType, genericType);
-                String propertyValue = beanProperties.getProperty(propertyName); // Must definetely be there without additional check
-                boolean isBoolean = (parameterType==Boolean.class)||(m.getParameterTypes()[0]==Boolean.TYPE);
-                boolean isCollection = Collection.class.isAssignableFrom(parameterType);
+            InjectionPlan.PropertyBinder binder = plan.getPropertyBinder(property);
+            LOG.debug("injectPropertiesFromFiles({}) {} -> {}", key, property, binder);
+            if (binder!=null) {
+                String propertyValue = beanProperties.getProperty(property);
                 try {
-                    Object[] parameters = prepareParameter(isBoolean, propertyValue, parameterType, isCollection, dependencies, key);
-                    LOG.debug("injectPropertiesFromFiles({}) setting value {} '{}' :{} from '{}' (bool {}) (collection {})", key, propertyName, parameters[0], parameters[0].getClass(), propertyValue, isBoolean, isCollection);
-                    m.invoke(bean, parameters);
-                } catch (IllegalAccessException|IllegalArgumentException|InvocationTargetException ex) {
-                    LOG.error("injectPropertiesFromFiles() error setting property "+propertyName+" to '"+propertyValue+"' at "+key+" :"+beanClassName, ex);
+                    Object[] parameters = prepareParameter(binder, propertyValue, dependencies, key);
+                    LOG.debug("injectPropertiesFromFiles({}) setting value {} '{}' :{} from '{}'", key, property, parameters[0], parameters[0].getClass(), propertyValue);
+                    binder.getSetter().invoke(bean, parameters);
+                } catch (IllegalArgumentException|InvocationTargetException ex) {
+                    LOG.error("injectPropertiesFromFiles() error setting property "+property+" to '"+propertyValue+"' at "+key+" :"+beanClassName, ex);
                 } // try/catch
             } // if
         } // for
@@ -837,54 +915,31 @@ public class Dinistiq {
      * @param key key / name/ id of the bean
      * @param bean bean instance
      * @param dependencies dependencies map where the dependecies of the bean are recorded with the given key
-     * @throws IOException - should not happen and stems from Properties access
      */
-    private void injectDependencies(String key, Object bean, Map<String, Set<Object>> dependencies) throws IOException {
+    private void injectDependencies(String key, Object bean, Map<String, Set<Integer>> dependencies) {
         // Prepare values from properties files
         Properties beanProperties = getProperties(key);
         LOG.debug("injectDependencies({}) bean properties {}", key, beanProperties.keySet());
 
         // fill injected fields
-        Class<? extends Object> beanClass = bean.getClass();
-        String beanClassName = beanClass.getName();
-        while (beanClass!=Object.class) {
-            if (bean instanceof Map) {
-                fillMap(bean, getProperties(key));
-                LOG.info("injectDependencies() filled map '{}' {}", key, bean);
-                return; // If it's a map we don't need to inject anything beyond some map properties files.
-            } // if
-            for (Field field : beanClass.getDeclaredFields()) {
-                LOG.debug("injectDependencies({}) field {}", key, field.getName());
-                if (field.getAnnotation(Inject.class)!=null) {
-                    Named named = field.getAnnotation(Named.class);
-                    String name = (named==null) ? null : (isEmpty(named.value()) ? field.getName() : named.value());
-                    LOG.info("injectDependencies({}) {} :{} needs injection with name {}", key, field.getName(), field.getGenericType(), name);
-                    Collection<Annotation> qualifiers = new HashSet<>();
-                    for (Annotation a : field.getAnnotations()) {
-                        boolean q = false;
-                        for (Class<?> ii : a.getClass().getInterfaces()) {
-                            LOG.info("getParameters() {}: {}", ii, ii.getAnnotation(Qualifier.class));
-                            q = q||(ii.getAnnotation(Qualifier.class)!=null);
-                        } // for
-                        if (q) {
-                            qualifiers.add(a);
-                        } // if
-                    } // for
-                    // TODO: Deal with scopes.
-                    Object b = getValue(beanProperties, dependencies, key, field.getType(), field.getGenericType(), name, qualifiers);
-                    boolean accessible = field.isAccessible();
-                    try {
-                        field.setAccessible(true); // NOPMD - PMD doesn't like the idea of DI frameworks
-                        field.set(bean, b);
-                    } catch (SecurityException|IllegalArgumentException|IllegalAccessException e) {
-                        LOG.error("injectDependencies() error setting field "+field.getName()+" :"+field.getType().getName()+" at '"+key+"' :"+beanClassName, e);
-                    } finally {
-                        field.setAccessible(accessible); // NOPMD - PMD doesn't like the idea of DI frameworks
-                    } // try/catch
-                } // if
-            } // for
-            beanClass = beanClass.getSuperclass();
-        } // while
+        String beanClassName = bean.getClass().getName();
+        if (bean instanceof Map) {
+            fillMap(bean, beanProperties);
+            LOG.info("injectDependencies() filled map '{}' {}", key, bean);
+            return; // If it's a map we don't need to inject anything beyond some map properties files.
+        } // if
+        for (InjectionPlan.FieldInjection injection : InjectionPlan.forClass(bean.getClass()).getFields()) {
+            Field field = injection.getField();
+            InjectionPlan.InjectionPoint point = injection.getPoint();
+            LOG.info("injectDependencies({}) {} :{} needs injection with name {}", key, field.getName(), point.getGenericType(), point.getName());
+            // TODO: Deal with scopes.
+            Object b = getValue(beanProperties, dependencies, key, point.getType(), point.getGenericType(), point.getName(), point.getQualifiers());
+            try {
+                injection.set(bean, b);
+            } catch (InvocationTargetException e) {
+                LOG.error("injectDependencies() error setting field "+field.getName()+" :"+field.getType().getName()+" at '"+key+"' :"+beanClassName, e);
+            } // try/catch
+        } // for
         callMethodsWithAnnotatedInjection(bean, key, beanProperties, dependencies, beanClassName);
         injectPropertiesFromFiles(bean, beanClassName, beanProperties, key, dependencies);
     }  // injectDependencies()
@@ -893,13 +948,12 @@ public class Dinistiq {
     /**
      * Read relevant properties files from class path.
      *
-     * @param classResolver class resolver used for properties files discovery
+     * @param propertiesFilenames names of all properties resources in the dinistiq/ path
      * @return joint properties files contents
      * @throws IOException thrown on  file handling problems
      */
-    private Properties readBeanListFromPropertiesFiles(ClassResolver classResolver) throws IOException {
+    private Properties readBeanListFromPropertiesFiles(SortedSet<String> propertiesFilenames) throws IOException {
         Properties beanlist = new Properties();
-        SortedSet<String> propertiesFilenames = classResolver.getProperties(PRODUCT_BASE_PATH+"/");
         LOG.debug("() checking {} files for properties", propertiesFilenames.size());
         for (String propertyResource : propertiesFilenames) {
             LOG.debug("() check {}", propertyResource);
@@ -913,68 +967,312 @@ public class Dinistiq {
     } // readBeanListFromPropertiesFiles()
 
 
+    /**
+     * Record the dependencies of the injection constructor of a bean class on other classes to be instanciated.
+     *
+     * @param graph constructor dependency graph of the classes to be instanciated
+     * @param node number of the class to record dependencies for
+     * @param classes list of classes to be instanciated
+     * @param candidatesByType numbers of the classes to be instanciated by all the types they are assignable to
+     * @param candidatesByName numbers of the classes to be instanciated by the names of the resulting beans
+     * @param resolvable classes known to be instanciable to choose from when any of several candidates would do - null
+     * to depend on all the candidates
+     * @return description why the class cannot be instanciated or null if all dependencies can be resolved
+     */
+    private String addConstructorDependencies(DependencyGraph graph, int node, List<Class<?>> classes, Map<Class<?>, List<Integer>> candidatesByType, Map<String, List<Integer>> candidatesByName, BitSet resolvable) {
+        Class<?> cls = classes.get(node);
+        if (Modifier.isAbstract(cls.getModifiers())) {
+            return "type cannot be instanciated";
+        } // if
+        InjectionPlan plan = InjectionPlan.forClass(cls);
+        if (!plan.isInstanciable()) {
+            return "no constructor for injection found";
+        } // if
+        List<InjectionPlan.InjectionPoint> points = plan.getConstructorParameters();
+        for (int i = 0; i<points.size(); i++) {
+            InjectionPlan.InjectionPoint point = points.get(i);
+            String name = point.getName();
+            Class<?> type = point.getType();
+            boolean isCollection = (name==null)&&Collection.class.isAssignableFrom(type)&&(point.getGenericType() instanceof ParameterizedType);
+            if (isCollection) {
+                Type collectionType = ((ParameterizedType) point.getGenericType()).getActualTypeArguments()[0];
+                if (!(collectionType instanceof Class)) {
+                    return "unsupported collection type "+collectionType+" for parameter "+i;
+                } // if
+                type = (Class<?>) collectionType;
+            } // if
+            boolean available = isCollection||Provider.class.equals(type);
+            if (name==null) {
+                Collection<Annotation> qualifiers = point.getQualifiers();
+                List<Integer> candidates = new ArrayList<>();
+                for (int candidate : candidatesByType.getOrDefault(type, Collections.emptyList())) {
+                    if ((candidate!=node)&&(isCollection||isQualified(classes.get(candidate), qualifiers))) {
+                        candidates.add(candidate);
+                    } // if
+                } // for
+                Object bean = findBean(type, qualifiers);
+                if ((resolvable!=null)&&!isCollection) {
+                    // any one of the candidates will do, so only wait for the ones which can be created at all
+                    List<Integer> resolving = new ArrayList<>();
+                    for (int candidate : candidates) {
+                        if (resolvable.get(candidate)) {
+                            resolving.add(candidate);
+                        } // if
+                    } // for
+                    if (!resolving.isEmpty()||(bean!=null)) {
+                        candidates = resolving;
+                    } // if
+                } // if
+                for (int candidate : candidates) {
+                    graph.addDependency(node, candidate);
+                    available = true;
+                } // for
+                available = available||(bean!=null);
+            } else {
+                for (int candidate : candidatesByName.getOrDefault(name, Collections.emptyList())) {
+                    if (candidate!=node) {
+                        graph.addDependency(node, candidate);
+                        available = true;
+                    } // if
+                } // for
+                available = available||(getNamedValue(name)!=null);
+            } // if
+            if (!available) {
+                return "missing "+(name==null ? "bean of type "+type.getName() : "bean "+name)+" for parameter "+i;
+            } // if
+        } // for
+        return null;
+    } // addConstructorDependencies()
+
+
     /**
      * Instanciate beans from the properties files and from annotations taking
      * constructor injection dependencies into account.
      *
+     * The constructor dependencies are collected from the injection constructors beforehand, so the beans can be
+     * created in an order where all dependencies are already available. Beans with dependencies which cannot be
+     * resolved are reported and left out. If any of several beans may be injected into a constructor parameter, beans
+     * which cannot be created are only waited for if none of the others can be created either.
+     *
+     * Beans which are listed with the same name replace each other in the order they are listed.
+     *
      * @param classes list of classes for instanciation
      * @param names list of names for the instances - must be in same order as above
      * @param dependencies already collected dependencies
+     * @param executor executor to create independent beans in parallel with - may be null
      */
-    private void instanciateBeans(List<Class<?>> classes, List<String> names, Map<String, Set<Object>> dependencies) {
-        int ripCord = 10;
-        List<Class<?>> classList = classes;
-        List<String> nameList = names;
-        while ((ripCord>0)&&(!classList.isEmpty())) {
-            LOG.debug("instanciateBeans() trying {} beans: {}", nameList.size(), classList);
-            ripCord--;
-            List<Class<?>> restClassList = new ArrayList<>();
-            List<String> restNameList = new ArrayList<>();
-            for (int i = 0; i<classList.size(); i++) {
-                try {
-                    createAndRegisterInstance(classList.get(i), nameList.get(i), dependencies);
-                } catch (Exception e) {
-                    LOG.warn("instanciateBeans() will retry {} later: {} - {}", classList.get(i).getName(), e.getClass().getName(), e.getMessage(), e);
-                    restClassList.add(classList.get(i));
-                    restNameList.add(nameList.get(i));
-                } // try/catch
+    private void instanciateBeans(List<Class<?>> classes, List<String> names, Map<String, Set<Integer>> dependencies, ExecutorService executor) {
+        int size = classes.size();
+        List<String> beanNames = new ArrayList<>(size);
+        Map<String, List<Integer>> candidatesByName = new HashMap<>();
+        Map<Class<?>, List<Integer>> candidatesByType = new HashMap<>();
+        for (int i = 0; i<size; i++) {
+            String beanName = getBeanName(classes.get(i), names.get(i));
+            beanNames.add(beanName);
+            candidatesByName.computeIfAbsent(beanName, n -> new ArrayList<>()).add(i);
+            for (Class<?> type : beans.getSupertypes(classes.get(i))) {
+                candidatesByType.computeIfAbsent(type, t -> new ArrayList<>()).add(i);
             } // for
-            classList = restClassList;
-            nameList = restNameList;
-        } // while
+        } // for
+        BitSet unresolved = new BitSet(size);
+        BitSet resolvable = null;
+        DependencyGraph graph;
+        List<Integer> order;
+        do {
+            // alternative candidates which cannot be created are only waited for if there is no other choice
+            if (resolvable!=null) {
+                LOG.debug("instanciateBeans() retrying with {} of {} beans resolvable", resolvable.cardinality(), size);
+            } // if
+            graph = new DependencyGraph(size);
+            for (int i = 0; i<size; i++) {
+                if (unresolved.get(i)) {
+                    graph.block(i);
+                } else {
+                    String problem = addConstructorDependencies(graph, i, classes, candidatesByType, candidatesByName, resolvable);
+                    if (problem!=null) {
+                        LOG.error("instanciateBeans() cannot instanciate {} :{} - {}", beanNames.get(i), classes.get(i).getName(), problem);
+                        graph.block(i);
+                        unresolved.set(i);
+                    } // if
+                } // if
+            } // for
+            for (List<Integer> candidates : candidatesByName.values()) {
+                int previous = -1;
+                for (int i : candidates) {
+                    if (!unresolved.get(i)) {
+                        if (previous>=0) {
+                            graph.addDependency(i, previous);
+                        } // if
+                        previous = i;
+                    } // if
+                } // for
+            } // for
+            order = graph.sort();
+            if ((resolvable!=null)&&(order.size()==resolvable.cardinality())) {
+                break;
+            } // if
+            resolvable = new BitSet(size);
+            for (int i : order) {
+                resolvable.set(i);
+            } // for
+        } while (order.size()+unresolved.cardinality()<size);
+        LOG.debug("instanciateBeans() creating {} of {} beans", order.size(), size);
+        List<List<Integer>> levels = (executor==null) ? List.of(order) : graph.getLevels(order);
+        for (List<Integer> level : levels) {
+            List<Runnable> tasks = new ArrayList<>(level.size());
+            for (int i : level) {
+                unresolved.set(i);
+                tasks.add(() -> {
+                    try {
+                        createAndRegisterInstance(classes.get(i), beanNames.get(i), dependencies);
+                    } catch (Exception e) {
+                        LOG.error("instanciateBeans() cannot instanciate "+beanNames.get(i)+" :"+classes.get(i).getName(), e);
+                    } // try/catch
+                });
+            } // for
+            execute(executor, tasks);
+        } // for
+        if (order.size()<size) {
+            for (List<Integer> cycle : graph.findCycles(order)) {
+                LOG.error("instanciateBeans() circular constructor dependencies {}", describeCycle(cycle, beanNames));
+                for (int i : cycle) {
+                    unresolved.set(i);
+                } // for
+            } // for
+        } // if
+        for (int i = unresolved.nextClearBit(0); i<size; i = unresolved.nextClearBit(i+1)) {
+            LOG.error("instanciateBeans() cannot instanciate {} :{} - depending on beans which cannot be instanciated", beanNames.get(i), classes.get(i).getName());
+        } // for
     } // instanciateBeans()
 
 
+    /**
+     * Run a list of tasks and wait for all of them to complete.
+     *
+     * @param executor executor to run the tasks in parallel with - null to run them one after the other
+     * @param tasks tasks to run
+     */
+    private void execute(ExecutorService executor, List<Runnable> tasks) {
+        if (executor==null) {
+            for (Runnable task : tasks) {
+                task.run();
+            } // for
+        } else {
+            List<Future<?>> futures = new ArrayList<>(tasks.size());
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(task));
+            } // for
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                } // for
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            } // try/catch
+        } // if
+    } // execute()
+
+
+    /**
+     * Get the number of threads to use for a parallel processing step from the scope.
+     *
+     * @param name name of the scope value holding the number
+     * @return number of threads - 1 if unset or invalid
+     */
+    private int getParallelism(String name) {
+        Object value = getNamedValue(name);
+        int result = 1;
+        if (value!=null) {
+            try {
+                result = Math.max(1, Integer.parseInt(value.toString().trim()));
+            } catch (NumberFormatException e) {
+                LOG.warn("getParallelism() ignoring invalid value {} for {}", value, name);
+            } // try/catch
+        } // if
+        return result;
+    } // getParallelism()
+
+
+    /**
+     * Describe a dependency cycle for error reporting.
+     *
+     * @param cycle nodes of the cycle
+     * @param names names of all the nodes
+     * @return cycle as a chain of names
+     */
+    private String describeCycle(List<Integer> cycle, List<String> names) {
+        StringBuilder description = new StringBuilder(64);
+        for (int node : cycle) {
+            description.append(names.get(node)).append(" -> ");
+        } // for
+        return description.append(names.get(cycle.get(0))).toString();
+    } // describeCycle()
+
+
     /**
      * Sort beans according to dependencies.
      *
+     * The beans are topologically sorted in time linear to the number of beans and dependencies. Dependencies on
+     * beans from the scope, which are not part of the given dependency map, don't influence the order.
+     *
      * @param dependencies dependencies in the scope
+     * @param levels list to add the sorted beans to grouped in levels of beans which don't depend on each other
+     * @return descriptions of the dependency cycles which prevented beans from being sorted - empty on success
      */
-    private void sortBeans(Map<String, Set<Object>> dependencies) {
+    private List<String> sortBeans(Map<String, Set<Integer>> dependencies, List<List<Object>> levels) {
         LOG.info("sortBeans() sorting beans according to dependencies");
-        int ripCord = 10;
-        while ((ripCord>0)&&(!dependencies.isEmpty())) {
-            ripCord--;
-            LOG.info("sortBeans() {} beans left", dependencies.size());
-            Set<String> deletions = new HashSet<>();
-            for (String key : dependencies.keySet()) {
-                LOG.debug("sortBeans() checking if {} with {} dependencies can be safely put into the ordered list {}", key, dependencies.get(key).size(), dependencies.get(key));
-                boolean dependenciesMet = true;
-                for (Object dep : dependencies.get(key)) {
-                    boolean isMet = orderedBeans.contains(dep);
-                    LOG.debug("sortBeans() {} depends on {} :{} met? {} {}", key, dep, dep.getClass().getName(), isMet, ((dep instanceof Collection) ? "is a collection" : ""));
-                    dependenciesMet = dependenciesMet&&isMet;
-                } // for
-                if (dependenciesMet) {
-                    LOG.info("sortBeans() adding {} to the list {}", key, orderedBeans);
-                    orderedBeans.add(beans.get(key));
-                    deletions.add(key);
+        Map<Integer, Integer> nodes = new HashMap<>();
+        List<Object> nodeBeans = new ArrayList<>(dependencies.size());
+        List<String> nodeNames = new ArrayList<>(dependencies.size());
+        for (String key : dependencies.keySet()) {
+            Object bean = beans.get(key);
+            if (bean==null) {
+                LOG.warn("sortBeans() no bean {} available", key);
+            } else {
+                int ordinal = beans.getOrdinal(bean);
+                if (!nodes.containsKey(ordinal)) {
+                    nodes.put(ordinal, nodeBeans.size());
+                    nodeBeans.add(bean);
+                    nodeNames.add(key);
                 } // if
+            } // if
+        } // for
+        DependencyGraph graph = new DependencyGraph(nodeBeans.size());
+        for (Map.Entry<String, Set<Integer>> entry : dependencies.entrySet()) {
+            Object bean = beans.get(entry.getKey());
+            if (bean!=null) {
+                int node = nodes.get(beans.getOrdinal(bean));
+                for (int ordinal : entry.getValue()) {
+                    Integer dependency = nodes.get(ordinal);
+                    LOG.debug("sortBeans() {} depends on {} ({})", entry.getKey(), beans.getName(ordinal), dependency);
+                    if (dependency!=null) {
+                        graph.addDependency(node, dependency);
+                    } // if
+                } // for
+            } // if
+        } // for
+        List<Integer> order = graph.sort();
+        for (int node : order) {
+            orderedBeans.add(nodeBeans.get(node));
+        } // for
+        for (List<Integer> level : graph.getLevels(order)) {
+            List<Object> levelBeans = new ArrayList<>(level.size());
+            for (int node : level) {
+                levelBeans.add(nodeBeans.get(node));
             } // for
-            for (String key : deletions) {
-                dependencies.remove(key);
+            levels.add(levelBeans);
+        } // for
+        LOG.info("sortBeans() sorted {} of {} beans", order.size(), nodeBeans.size());
+        List<String> cycles = new ArrayList<>();
+        if (order.size()<nodeBeans.size()) {
+            for (List<Integer> cycle : graph.findCycles(order)) {
+                cycles.add(describeCycle(cycle, nodeNames));
             } // for
-        } // while
+        } // if
+        return cycles;
     } // sortBeans()
 
 
@@ -992,30 +1290,27 @@ public class Dinistiq {
             // measure time for init process
             long start = System.currentTimeMillis();
 
-            Map<String, Set<Object>> dependencies = new HashMap<>();
+            Map<String, Set<Integer>> dependencies = new ConcurrentHashMap<>();
 
             // Use all externally provided beans
             if (externalBeans!=null) {
-                beans.putAll(externalBeans);
-                for (String externalBeanName : externalBeans.keySet()) {
-                    dependencies.put(externalBeanName, new HashSet<>());
+                for (Map.Entry<String, Object> externalBean : externalBeans.entrySet()) {
+                    if (isValue(externalBean.getValue())) {
+                        values.put(externalBean.getKey(), externalBean.getValue());
+                    } else {
+                        beans.put(externalBean.getKey(), externalBean.getValue());
+                        dependencies.put(externalBean.getKey(), new HashSet<>());
+                    } // if
                 } // for
             } // if
 
-            // Add system properties to scope and split potential URL values
-            for (Object keyObject : System.getProperties().keySet()) {
-                String key = keyObject.toString();
-                beans.put(key, System.getProperty(key));
-                storeUrlParts(key, System.getProperty(key), beans);
-            } // for
-            // Add environment to scope and split potential URL values
-            for (String key : environment.keySet()) {
-                storeUrlParts(key, environment.get(key), beans);
-            } // for
-            LOG.debug("() initial beans {}", beans);
+            // System properties, environment, and their URL parts are looked up on demand
+            LOG.debug("() initial beans {} values {}", beans.names(), values.names());
 
             // Read bean list from properties files mapping names to names of the classes to be instanciated
-            Properties beanlist = readBeanListFromPropertiesFiles(classResolver);
+            SortedSet<String> propertiesFilenames = classResolver.getProperties(PRODUCT_BASE_PATH+"/");
+            Properties beanlist = readBeanListFromPropertiesFiles(propertiesFilenames);
+            preloadProperties(propertiesFilenames);
             List<Class<?>> classList = new ArrayList<>();
             List<String> nameList = new ArrayList<>();
             for (String key : beanlist.stringPropertyNames()) {
@@ -1033,16 +1328,14 @@ public class Dinistiq {
                         Class<? extends Object> c = Class.forName(className.substring(0, idx));
                         Object instance = c.getConstructor(String.class).newInstance(value);
                         LOG.info("() storing value {} :{} - {}", key, instance.getClass().getName(), instance);
-                        beans.put(key, instance);
-                        dependencies.put(key, new HashSet<>());
+                        values.put(key, instance);
                     } else {
                         boolean setType = className.startsWith(SET_TYPE);
                         if ((setType||className.startsWith(LIST_TYPE))&&(idx>0)) {
-                            String values[] = getReferenceValue(className.substring(idx+1, className.length()-1)).toString().split(",");
-                            Collection<String> instance = setType ? new HashSet<>(Arrays.asList(values)) : Arrays.asList(values);
+                            String elements[] = getReferenceValue(className.substring(idx+1, className.length()-1)).toString().split(",");
+                            Collection<String> instance = setType ? new HashSet<>(Arrays.asList(elements)) : Arrays.asList(elements);
                             LOG.debug("() collection {} (set {}): {}", key, setType, instance);
-                            beans.put(key, instance);
-                            dependencies.put(key, new HashSet<>());
+                            values.put(key, instance);
                         } else {
                             LOG.debug("() listing {}", className);
                             Class<? extends Object> c = Class.forName(className);
@@ -1061,39 +1354,61 @@ public class Dinistiq {
                 classList.add(c);
                 nameList.add(null);
             } // for
-            LOG.debug("() beans {}", beans.keySet());
+            LOG.debug("() beans {}", beans.names());
 
-            instanciateBeans(classList, nameList, dependencies);
+            int parallelism = getParallelism(PARALLELISM);
+            LOG.info("() parallelism {}", parallelism);
+            ExecutorService executor = (parallelism>1) ? new ForkJoinPool(parallelism) : null;
+            try {
+                instanciateBeans(classList, nameList, dependencies, executor);
 
-            // Fill in injections and note needed dependencies
-            for (String key : new HashSet<>(beans.keySet())) {
-                Object get = beans.get(key);
-                try {
-                    injectDependencies(key, get, dependencies);
-                } catch (IOException ioe) {
-                    LOG.warn("() while injecting dependencies for "+key, ioe);
-                }
-            } // for
+                // Fill in injections and note needed dependencies
+                List<Runnable> injections = new ArrayList<>();
+                for (String key : beans.names()) {
+                    Object get = beans.get(key);
+                    injections.add(() -> injectDependencies(key, get, dependencies));
+                } // for
+                execute(executor, injections);
+            } finally {
+                if (executor!=null) {
+                    executor.shutdown();
+                } // if
+            } // try/finally
 
-            sortBeans(dependencies);
-            if (!dependencies.isEmpty()) {
-                throw new RuntimeException("Circular bean injection and initialization dependencies detected after "+(System.currentTimeMillis()-start)+"ms"+" "+dependencies);
+            List<List<Object>> levels = new ArrayList<>();
+            List<String> cycles = sortBeans(dependencies, levels);
+            if (!cycles.isEmpty()) {
+                throw new RuntimeException("Circular bean injection and initialization dependencies detected after "+(System.currentTimeMillis()-start)+"ms"+" "+cycles);
             } // if
 
             // Call Post Construct
-            LOG.info("() calling post construct on ordered beans {}", orderedBeans);
-            for (Object bean : orderedBeans) {
-                LOG.info("() bean {}", bean);
-                callPostConstruct(bean);
-            } // for
+            int postConstructParallelism = getParallelism(POSTCONSTRUCT_PARALLELISM);
+            LOG.info("() calling post construct on ordered beans {} (parallelism {})", orderedBeans, postConstructParallelism);
+            if (postConstructParallelism==1) {
+                for (Object bean : orderedBeans) {
+                    LOG.info("() bean {}", bean);
+                    callPostConstruct(bean, null);
+                } // for
+            } // if
             LOG.info("() calling post construct for the rest of the beans");
-            for (String key : beans.keySet()) {
+            Set<Object> ordered = Collections.newSetFromMap(new IdentityHashMap<>());
+            ordered.addAll(orderedBeans);
+            List<Object> rest = new ArrayList<>();
+            for (String key : beans.names()) {
                 Object bean = beans.get(key);
-                if (!orderedBeans.contains(bean)&&!String.class.isAssignableFrom(bean.getClass())) {
+                if (!ordered.contains(bean)) {
                     LOG.warn("() bean without dependencies to call post construct method on {} :{}", key, bean.getClass().getSimpleName());
-                    callPostConstruct(bean);
+                    rest.add(bean);
                 } // if
             } // for
+            if (postConstructParallelism==1) {
+                for (Object bean : rest) {
+                    callPostConstruct(bean, null);
+                } // for
+            } else {
+                levels.add(rest);
+                callPostConstruct(levels, postConstructParallelism);
+            } // if
             LOG.info("() setup completed after {}ms", (System.currentTimeMillis()-start));
         } catch (ClassNotFoundException|NoSuchMethodException|InstantiationException|InvocationTargetException|IllegalAccessException|IOException e) {
             LOG.error("()", e);
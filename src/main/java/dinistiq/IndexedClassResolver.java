@@ -0,0 +1,235 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Resolve classes from a given set of packages using the class indexes written at build time.
+ *
+ * The dinistiq annotation processor writes an index of all top level classes and the dinistiq properties files of
+ * a module. This resolver merges all indexes found on the class path and answers all queries from the index. Only
+ * classes matching a query are loaded and no jar file or directory is scanned at all.
+ */
+public class IndexedClassResolver implements ClassResolver {
+
+    /**
+     * Resource path of the class indexes.
+     */
+    public static final String INDEX = "META-INF/dinistiq/index";
+
+    /**
+     * Prefix of index lines describing a class.
+     */
+    public static final String CLASS_PREFIX = "class ";
+
+    /**
+     * Prefix of index lines naming a properties resource.
+     */
+    public static final String RESOURCE_PREFIX = "resource ";
+
+    private static final Logger LOG = LoggerFactory.getLogger(IndexedClassResolver.class);
+
+    private final Set<String> packageNames;
+
+    private final List<ClassInfo> classInfos = new ArrayList<>();
+
+    private final Set<String> properties = new HashSet<>();
+
+
+    /**
+     * Initialize class resolver with a given set of package names by reading all class indexes.
+     *
+     * @param packageNames Set of string names for packages to resolve classes from
+     */
+    public IndexedClassResolver(Set<String> packageNames) {
+        this.packageNames = new HashSet<>(packageNames);
+        // to have the properties files in the path which we intend to use for configuration
+        this.packageNames.add(this.getClass().getPackage().getName());
+        try {
+            Enumeration<URL> indexes = Thread.currentThread().getContextClassLoader().getResources(INDEX);
+            while (indexes.hasMoreElements()) {
+                URL index = indexes.nextElement();
+                try {
+                    readIndex(index);
+                } catch (IOException e) {
+                    LOG.error("() cannot read index "+index, e);
+                } // try/catch
+            } // while
+        } catch (IOException e) {
+            LOG.error("()", e);
+        } // try/catch
+        LOG.info("() {} classes and {} properties files indexed", classInfos.size(), properties.size());
+    } // IndexedClassResolver()
+
+
+    /**
+     * Read a single class index.
+     *
+     * @param index location of the index
+     * @throws IOException on read errors
+     */
+    private void readIndex(URL index) throws IOException {
+        LOG.info("readIndex() {}", index);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line!=null; line = reader.readLine()) {
+                if (line.startsWith(CLASS_PREFIX)) {
+                    try {
+                        ClassInfo info = ClassInfo.parse(line.substring(CLASS_PREFIX.length()));
+                        if (isInPackages(info.getName())) {
+                            classInfos.add(info);
+                        } // if
+                    } catch (IllegalArgumentException e) {
+                        LOG.error("readIndex() skipping invalid line in {}: {}", index, line);
+                    } // try/catch
+                } // if
+                if (line.startsWith(RESOURCE_PREFIX)) {
+                    properties.add(line.substring(RESOURCE_PREFIX.length()).trim());
+                } // if
+            } // for
+        } // try
+    } // readIndex()
+
+
+    /**
+     * Check if a class belongs to one of the packages to resolve classes from.
+     *
+     * @param className name of the class
+     * @return true if the class is to be considered
+     */
+    private boolean isInPackages(String className) {
+        for (String packageName : packageNames) {
+            if (className.startsWith(packageName)) {
+                return true;
+            } // if
+        } // for
+        return false;
+    } // isInPackages()
+
+
+    /**
+     * Load the indexed classes matching a given condition.
+     *
+     * @param <T> generic type variable for the result set
+     * @param condition condition on the class metadata
+     * @return set of the matching classes which could be loaded
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends Object> Set<Class<T>> getClasses(Predicate<ClassInfo> condition) {
+        Set<Class<T>> result = new HashSet<>();
+        for (ClassInfo info : classInfos) {
+            if (condition.test(info)) {
+                try {
+                    result.add((Class<T>) Class.forName(info.getName(), false, Thread.currentThread().getContextClassLoader()));
+                } catch (ClassNotFoundException|LinkageError e) {
+                    LOG.error("getClasses() cannot load indexed class "+info.getName(), e);
+                } // try/catch
+            } // if
+        } // for
+        return result;
+    } // getClasses()
+
+
+    /**
+     * Get classes from underlying packages satisfying the given superclass which are no interfaces and not abstract.
+     *
+     * @see ClassResolver#getSubclasses(java.lang.Class)
+     */
+    @Override
+    public <T extends Object> Set<Class<T>> getSubclasses(Class<T> type) {
+        return getClasses(info -> !info.isInterface()&&!info.isAbstract()&&info.isSubtypeOf(type.getName()));
+    } // getSubclasses()
+
+
+    /**
+     * Get classes from underlying packages satisfying the given annotation which are no interfaces and not abstract.
+     *
+     * @see ClassResolver#getAnnotated(java.lang.Class)
+     */
+    @Override
+    public <T extends Object> Set<Class<T>> getAnnotated(Class<? extends Annotation> annotation) {
+        return getClasses(info -> !info.isInterface()&&!info.isAbstract()&&info.isAnnotated(annotation.getName()));
+    } // getAnnotated()
+
+
+    /**
+     * Get classes from underlying packages satisfying the given annotation.
+     *
+     * @see ClassResolver#getAnnotatedItems(java.lang.Class)
+     */
+    @Override
+    public <T extends Object> Set<Class<T>> getAnnotatedItems(Class<? extends Annotation> annotation) {
+        return getClasses(info -> info.isAnnotated(annotation.getName()));
+    } // getAnnotatedItems()
+
+
+    /**
+     * Get classes from underlying packages satisfying the given annotation and superclass which are no interfaces.
+     *
+     * @see ClassResolver#getAnnotatedSubclasses(java.lang.Class, java.lang.Class)
+     */
+    @Override
+    public <T extends Object> Set<Class<T>> getAnnotatedSubclasses(Class<T> c, Class<? extends Annotation> annotation) {
+        return getClasses(info -> !info.isInterface()&&info.isAnnotated(annotation.getName())&&info.isSubtypeOf(c.getName()));
+    } // getAnnotatedSubclasses()
+
+
+    /**
+     * @see ClassResolver#getProperties(java.lang.String)
+     */
+    @Override
+    public SortedSet<String> getProperties(String path) {
+        SortedSet<String> result = new TreeSet<>();
+        for (String property : properties) {
+            if (property.startsWith(path)) {
+                result.add(property);
+            } // if
+        } // for
+        return result;
+    } // getProperties()
+
+
+    /**
+     * Stream the metadata of the indexed classes.
+     *
+     * @see ClassResolver#getClassInfos()
+     */
+    @Override
+    public Stream<ClassInfo> getClassInfos() {
+        return classInfos.stream();
+    } // getClassInfos()
+
+} // IndexedClassResolver
@@ -0,0 +1,797 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Qualifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Everything dinistiq needs to know about a class to create and initialize instances of it.
+ *
+ * The reflective analysis of a class is done only once and the resulting plan is cached per class, so
+ * creating many instances of the same class doesn't repeat any of the lookups. Plans are immutable and
+ * may be used from several threads at a time.
+ *
+ * Constructors, field writes, and method calls are done through method handles with a uniform shape which are
+ * created on first use. If a member cannot be unreflected, the handle falls back to plain reflection.
+ * Instances are created through a bean factory generated at compile time instead, if there is one for the class.
+ */
+final class InjectionPlan {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InjectionPlan.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private static final MethodType FIELD_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodType METHOD_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    // factories are only held softly, since they would otherwise keep their class loader - the weak key - reachable
+    private static final Map<ClassLoader, SoftReference<Map<Class<?>, BeanFactory<?>>>> FACTORIES = new WeakHashMap<>();
+
+    private static final ClassValue<InjectionPlan> PLANS = new ClassValue<InjectionPlan>() {
+
+        @Override
+        protected InjectionPlan computeValue(Class<?> type) {
+            return new InjectionPlan(type);
+        } // computeValue()
+
+    };
+
+
+    /**
+     * A single value to be injected into a field or passed as a parameter.
+     */
+    static final class InjectionPoint {
+
+        private final Class<?> type;
+
+        private final Type genericType;
+
+        private final String name;
+
+        private final Collection<Annotation> qualifiers;
+
+
+        /**
+         * Describe an injection point.
+         *
+         * @param type raw type of the value
+         * @param genericType generic type of the value
+         * @param name name of the value to inject - null if it should be found by type
+         * @param qualifiers qualifiers for the value to fulfill
+         */
+        private InjectionPoint(Class<?> type, Type genericType, String name, Collection<Annotation> qualifiers) {
+            this.type = type;
+            this.genericType = genericType;
+            this.name = name;
+            this.qualifiers = Collections.unmodifiableCollection(qualifiers);
+        } // InjectionPoint()
+
+
+        /**
+         * @return raw type of the value
+         */
+        Class<?> getType() {
+            return type;
+        } // getType()
+
+
+        /**
+         * @return generic type of the value
+         */
+        Type getGenericType() {
+            return genericType;
+        } // getGenericType()
+
+
+        /**
+         * @return name of the value to inject - null if it should be found by type
+         */
+        String getName() {
+            return name;
+        } // getName()
+
+
+        /**
+         * @return qualifiers for the value to fulfill
+         */
+        Collection<Annotation> getQualifiers() {
+            return qualifiers;
+        } // getQualifiers()
+
+    } // InjectionPoint
+
+
+    /**
+     * A field to be filled by injection.
+     */
+    static final class FieldInjection {
+
+        private final Field field;
+
+        private final InjectionPoint point;
+
+        private final MethodHandle setter;
+
+
+        /**
+         * Describe a field injection.
+         *
+         * @param field accessible field to fill
+         * @param point description of the value to inject
+         */
+        private FieldInjection(Field field, InjectionPoint point) {
+            this.field = field;
+            this.point = point;
+            setter = getSetterHandle(field);
+        } // FieldInjection()
+
+
+        /**
+         * @return field to fill
+         */
+        Field getField() {
+            return field;
+        } // getField()
+
+
+        /**
+         * @return description of the value to inject
+         */
+        InjectionPoint getPoint() {
+            return point;
+        } // getPoint()
+
+
+        /**
+         * Write a value to the field.
+         *
+         * @param bean instance to write the field of - ignored for static fields
+         * @param value value to write
+         * @throws InvocationTargetException wrapping any problem writing the field
+         */
+        void set(Object bean, Object value) throws InvocationTargetException {
+            try {
+                setter.invokeExact(bean, value);
+            } catch (Throwable t) {
+                throw wrap(t);
+            } // try/catch
+        } // set()
+
+    } // FieldInjection
+
+
+    /**
+     * A method to be called with injected parameters.
+     */
+    static final class MethodInjection {
+
+        private final Method method;
+
+        private final List<InjectionPoint> parameters;
+
+        // Created on first use since most setters are never called. Method handles are immutable, so a racy
+        // initialization at worst creates the handle more than once.
+        private MethodHandle invoker;
+
+
+        /**
+         * Describe a method injection.
+         *
+         * @param method method to call
+         * @param parameters descriptions of the values to pass as parameters
+         */
+        private MethodInjection(Method method, List<InjectionPoint> parameters) {
+            this.method = method;
+            this.parameters = parameters;
+        } // MethodInjection()
+
+
+        /**
+         * @return method to call
+         */
+        Method getMethod() {
+            return method;
+        } // getMethod()
+
+
+        /**
+         * @return descriptions of the values to pass as parameters
+         */
+        List<InjectionPoint> getParameters() {
+            return parameters;
+        } // getParameters()
+
+
+        /**
+         * Call the method.
+         *
+         * @param bean instance to call the method on - ignored for static methods
+         * @param args parameters to pass
+         * @return result of the call - null for void methods
+         * @throws InvocationTargetException wrapping any problem calling the method
+         */
+        Object invoke(Object bean, Object[] args) throws InvocationTargetException {
+            MethodHandle handle = invoker;
+            if (handle==null) {
+                handle = getMethodHandle(method);
+                invoker = handle;
+            } // if
+            try {
+                return (Object) handle.invokeExact(bean, args);
+            } catch (Throwable t) {
+                throw wrap(t);
+            } // try/catch
+        } // invoke()
+
+    } // MethodInjection
+
+
+    /**
+     * A setter to be called with a value from a properties file.
+     */
+    static final class PropertyBinder {
+
+        private final MethodInjection setter;
+
+        private final Class<?> parameterType;
+
+        private final boolean isBoolean;
+
+        private final boolean isCollection;
+
+        private final Function<String, Object> converter;
+
+
+        /**
+         * Describe the binding of a property to a setter.
+         *
+         * @param setter setter method to call
+         */
+        private PropertyBinder(MethodInjection setter) {
+            this.setter = setter;
+            parameterType = setter.getMethod().getParameterTypes()[0];
+            isBoolean = (parameterType==Boolean.class)||(parameterType==Boolean.TYPE);
+            isCollection = Collection.class.isAssignableFrom(parameterType);
+            switch (parameterType.getName()) {
+                case "long":
+                    converter = Long::valueOf;
+                    break;
+                case "int":
+                    converter = Integer::valueOf;
+                    break;
+                case "float":
+                    converter = Float::valueOf;
+                    break;
+                case "double":
+                    converter = Double::valueOf;
+                    break;
+                default:
+                    converter = null;
+            } // switch
+        } // PropertyBinder()
+
+
+        /**
+         * @return setter method to call
+         */
+        MethodInjection getSetter() {
+            return setter;
+        } // getSetter()
+
+
+        /**
+         * @return type of the single parameter of the setter
+         */
+        Class<?> getParameterType() {
+            return parameterType;
+        } // getParameterType()
+
+
+        /**
+         * @return true if the setter takes a boolean value
+         */
+        boolean isBoolean() {
+            return isBoolean;
+        } // isBoolean()
+
+
+        /**
+         * @return true if the setter takes a collection
+         */
+        boolean isCollection() {
+            return isCollection;
+        } // isCollection()
+
+
+        /**
+         * Convert the textual value of a property for setters with a numeric primitive parameter.
+         *
+         * @param propertyValue textual value from the properties file
+         * @return converted value or null if the parameter is no numeric primitive
+         * @throws NumberFormatException if the value is no valid number
+         */
+        Object convert(String propertyValue) {
+            return (converter==null) ? null : converter.apply(propertyValue);
+        } // convert()
+
+    } // PropertyBinder
+
+
+    private final Class<?> type;
+
+    private final Constructor<?> constructor;
+
+    private final List<InjectionPoint> constructorParameters;
+
+    private final BeanFactory<?> factory;
+
+    private final MethodHandle instanciator;
+
+    private final List<FieldInjection> fields;
+
+    private final List<MethodInjection> methods;
+
+    private final List<MethodInjection> postConstructMethods;
+
+    private final Map<String, MethodInjection> setters;
+
+    private final Map<String, PropertyBinder> propertyBinders = new ConcurrentHashMap<>();
+
+    private final Set<String> unknownProperties = ConcurrentHashMap.newKeySet();
+
+
+    /**
+     * Analyze a class.
+     *
+     * @param type class to create the plan for
+     */
+    private InjectionPlan(Class<?> type) {
+        LOG.debug("InjectionPlan({})", type.getName());
+        this.type = type;
+        constructor = findConstructor(type);
+        factory = (constructor==null) ? null : findFactory(type);
+        instanciator = ((constructor==null)||(factory!=null)) ? null : getConstructorHandle(constructor);
+        constructorParameters = (constructor==null) ? Collections.emptyList() : getParameters(constructor.getParameterTypes(), constructor.getGenericParameterTypes(), constructor.getParameterAnnotations());
+
+        List<FieldInjection> fieldInjections = new ArrayList<>();
+        for (Class<?> c = type; (c!=null)&&(c!=Object.class); c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (field.getAnnotation(Inject.class)!=null) {
+                    Named named = field.getAnnotation(Named.class);
+                    String name = (named==null) ? null : (Dinistiq.isEmpty(named.value()) ? field.getName() : named.value());
+                    makeAccessible(field);
+                    fieldInjections.add(new FieldInjection(field, new InjectionPoint(field.getType(), field.getGenericType(), name, getQualifiers(field.getAnnotations()))));
+                } // if
+            } // for
+        } // for
+        fields = Collections.unmodifiableList(fieldInjections);
+
+        List<MethodInjection> methodInjections = new ArrayList<>();
+        List<MethodInjection> postConstruct = new ArrayList<>();
+        Map<String, MethodInjection> setterMethods = new HashMap<>();
+        for (Method m : type.getMethods()) {
+            MethodInjection injection = new MethodInjection(m, getParameters(m.getParameterTypes(), m.getGenericParameterTypes(), m.getParameterAnnotations()));
+            if (m.getAnnotation(Inject.class)!=null) {
+                methodInjections.add(injection);
+            } // if
+            if (m.getAnnotation(PostConstruct.class)!=null) {
+                postConstruct.add(injection);
+            } // if
+            if (m.getName().startsWith("set")&&(m.getParameterCount()>0)) {
+                setterMethods.put(m.getName(), injection);
+            } // if
+        } // for
+        methods = Collections.unmodifiableList(methodInjections);
+        postConstructMethods = Collections.unmodifiableList(postConstruct);
+        setters = Collections.unmodifiableMap(setterMethods);
+    } // InjectionPlan()
+
+
+    /**
+     * Get the plan for a given class.
+     *
+     * @param type class to get the plan for
+     * @return plan computed on first request for the class and reused afterwards
+     */
+    static InjectionPlan forClass(Class<?> type) {
+        return PLANS.get(type);
+    } // forClass()
+
+
+    /**
+     * Allow reflective access to a field or constructor once for all later uses.
+     *
+     * @param object field or constructor to make accessible
+     */
+    private static void makeAccessible(AccessibleObject object) {
+        try {
+            object.setAccessible(true); // NOPMD - PMD doesn't like the idea of DI frameworks
+        } catch (RuntimeException e) {
+            LOG.warn("makeAccessible() cannot make {} accessible: {}", object, e.getMessage());
+        } // try/catch
+    } // makeAccessible()
+
+
+    /**
+     * Wrap a problem from a method handle invocation the way reflective calls report problems.
+     *
+     * @param t problem to wrap
+     * @return exception to be thrown
+     */
+    private static InvocationTargetException wrap(Throwable t) {
+        return (t instanceof InvocationTargetException) ? (InvocationTargetException) t : new InvocationTargetException(t);
+    } // wrap()
+
+
+    /**
+     * Get a reflective fallback method handle for a given virtual method of a reflection type.
+     *
+     * @param type reflection type to look up the method in
+     * @param name name of the method
+     * @param methodType type of the method
+     * @param target reflection object to bind the handle to
+     * @return handle calling the method on the given object
+     */
+    private static MethodHandle getFallbackHandle(Class<?> type, String name, MethodType methodType, Object target) {
+        try {
+            return LOOKUP.findVirtual(type, name, methodType).bindTo(target);
+        } catch (NoSuchMethodException|IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } // try/catch
+    } // getFallbackHandle()
+
+
+    /**
+     * Create a method handle for a constructor taking the parameters as an array.
+     *
+     * @param c constructor to create the handle for
+     * @return handle of type (Object[])Object
+     */
+    private static MethodHandle getConstructorHandle(Constructor<?> c) {
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflectConstructor(c);
+            handle = handle.asType(handle.type().generic()).asSpreader(Object[].class, c.getParameterCount());
+        } catch (IllegalAccessException e) {
+            LOG.debug("getConstructorHandle() using reflection for {}: {}", c, e.getMessage());
+            handle = getFallbackHandle(Constructor.class, "newInstance", CONSTRUCTOR_TYPE, c);
+        } // try/catch
+        return handle.asType(CONSTRUCTOR_TYPE);
+    } // getConstructorHandle()
+
+
+    /**
+     * Create a method handle writing a field.
+     *
+     * @param field field to create the handle for
+     * @return handle of type (Object,Object)void
+     */
+    private static MethodHandle getSetterHandle(Field field) {
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflectSetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            } // if
+        } catch (IllegalAccessException e) {
+            LOG.debug("getSetterHandle() using reflection for {}: {}", field, e.getMessage());
+            handle = getFallbackHandle(Field.class, "set", FIELD_TYPE, field);
+        } // try/catch
+        return handle.asType(FIELD_TYPE);
+    } // getSetterHandle()
+
+
+    /**
+     * Create a method handle for a method taking the instance and the parameters as an array.
+     *
+     * @param method method to create the handle for
+     * @return handle of type (Object,Object[])Object
+     */
+    private static MethodHandle getMethodHandle(Method method) {
+        MethodHandle handle;
+        try {
+            method.trySetAccessible(); // NOPMD - PMD doesn't like the idea of DI frameworks
+            handle = LOOKUP.unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            } // if
+            handle = handle.asType(handle.type().generic()).asSpreader(Object[].class, method.getParameterCount());
+        } catch (IllegalAccessException|SecurityException e) {
+            LOG.debug("getMethodHandle() using reflection for {}: {}", method, e.getMessage());
+            handle = getFallbackHandle(Method.class, "invoke", METHOD_TYPE, method);
+        } // try/catch
+        return handle.asType(METHOD_TYPE);
+    } // getMethodHandle()
+
+
+    /**
+     * Load all generated bean factories registered as services for a class loader.
+     *
+     * @param classLoader class loader to look up the services with
+     * @return map of the factories by the classes they create instances of
+     */
+    @SuppressWarnings("rawtypes")
+    private static Map<Class<?>, BeanFactory<?>> loadFactories(ClassLoader classLoader) {
+        Map<Class<?>, BeanFactory<?>> result = new HashMap<>();
+        Iterator<BeanFactory> factories = ServiceLoader.load(BeanFactory.class, classLoader).iterator();
+        boolean hasNext = true;
+        while (hasNext) {
+            try {
+                hasNext = factories.hasNext();
+                if (hasNext) {
+                    BeanFactory<?> factory = factories.next();
+                    result.put(factory.getType(), factory);
+                } // if
+            } catch (ServiceConfigurationError|LinkageError e) {
+                LOG.warn("loadFactories() cannot use factory: {}", e.getMessage());
+            } // try/catch
+        } // while
+        LOG.info("loadFactories() {} factories registered", result.size());
+        return result;
+    } // loadFactories()
+
+
+    /**
+     * Find the generated bean factory for a given type.
+     *
+     * @param type type to create instances of
+     * @return factory or null if no factory was generated for the type
+     */
+    private static BeanFactory<?> findFactory(Class<?> type) {
+        ClassLoader classLoader = type.getClassLoader();
+        if (classLoader==null) {
+            return null;
+        } // if
+        Map<Class<?>, BeanFactory<?>> factories;
+        synchronized (FACTORIES) {
+            SoftReference<Map<Class<?>, BeanFactory<?>>> reference = FACTORIES.get(classLoader);
+            factories = (reference==null) ? null : reference.get();
+            if (factories==null) {
+                factories = loadFactories(classLoader);
+                FACTORIES.put(classLoader, new SoftReference<>(factories));
+            } // if
+        } // synchronized
+        BeanFactory<?> result = factories.get(type);
+        LOG.debug("findFactory() {} :{}", result, type.getName());
+        return result;
+    } // findFactory()
+
+
+    /**
+     * Find the constructor to be used for instanciation of a given type.
+     *
+     * @param type type to create instances of
+     * @return constructor annotated for injection or the public default constructor - null if neither is available
+     */
+    private static Constructor<?> findConstructor(Class<?> type) {
+        Constructor<?> c = null;
+        for (Constructor<?> ctor : type.getDeclaredConstructors()) {
+            c = (ctor.getAnnotation(Inject.class)==null) ? c : ctor;
+        } // for
+        if (c==null) {
+            try {
+                c = type.getConstructor();
+            } catch (NoSuchMethodException e) {
+                LOG.debug("findConstructor() no constructor for injection in {}", type.getName());
+                return null;
+            } // try/catch
+        } // if
+        makeAccessible(c);
+        return c;
+    } // findConstructor()
+
+
+    /**
+     * Describe the parameters of a method or constructor as injection points.
+     *
+     * @param types types of the parameters
+     * @param genericTypes generic types of the parameters
+     * @param annotations annotations of the parameters
+     * @return list of injection points
+     */
+    private static List<InjectionPoint> getParameters(Class<?>[] types, Type[] genericTypes, Annotation[][] annotations) {
+        List<InjectionPoint> result = new ArrayList<>(types.length);
+        for (int i = 0; i<types.length; i++) {
+            String name = null;
+            for (Annotation a : annotations[i]) {
+                if (a instanceof Named) {
+                    name = ((Named) a).value();
+                } // if
+            } // for
+            result.add(new InjectionPoint(types[i], genericTypes[i], name, getQualifiers(annotations[i])));
+        } // for
+        return Collections.unmodifiableList(result);
+    } // getParameters()
+
+
+    /**
+     * Get the qualifiers from a set of annotations of an injection point.
+     *
+     * @param annotations annotations of the injection point
+     * @return collection of the qualifier annotations - may be empty but not null
+     */
+    private static Collection<Annotation> getQualifiers(Annotation[] annotations) {
+        Collection<Annotation> qualifiers = new HashSet<>();
+        for (Annotation a : annotations) {
+            if (a.annotationType().isAnnotationPresent(Qualifier.class)) {
+                qualifiers.add(a);
+            } // if
+        } // for
+        return qualifiers;
+    } // getQualifiers()
+
+
+    /**
+     * Get the class this plan was created for.
+     *
+     * @return analyzed class
+     */
+    Class<?> getType() {
+        return type;
+    } // getType()
+
+
+    /**
+     * Tell if there is a constructor to be used for instanciation.
+     *
+     * @return true if the class has a constructor annotated for injection or a public default constructor
+     */
+    boolean isInstanciable() {
+        return constructor!=null;
+    } // isInstanciable()
+
+
+    /**
+     * Create a new instance with the constructor to be used for instanciation.
+     *
+     * @param args parameters to pass to the constructor
+     * @return new instance
+     * @throws NoSuchMethodException if there is no constructor available
+     * @throws InvocationTargetException wrapping any problem calling the constructor
+     */
+    Object newInstance(Object[] args) throws NoSuchMethodException, InvocationTargetException {
+        if (factory!=null) {
+            try {
+                return factory.create(args);
+            } catch (RuntimeException|Error e) {
+                throw wrap(e);
+            } // try/catch
+        } // if
+        if (instanciator==null) {
+            throw new NoSuchMethodException(type.getName()+".<init>()");
+        } // if
+        try {
+            return (Object) instanciator.invokeExact(args);
+        } catch (Throwable t) {
+            throw wrap(t);
+        } // try/catch
+    } // newInstance()
+
+
+    /**
+     * Get the parameters of the constructor to be used for instanciation.
+     *
+     * @return list of injection points - empty if there is no constructor available
+     */
+    List<InjectionPoint> getConstructorParameters() {
+        return constructorParameters;
+    } // getConstructorParameters()
+
+
+    /**
+     * Get the fields annotated for injection from the class itself up to its topmost superclass.
+     *
+     * @return list of fields with their injection points
+     */
+    List<FieldInjection> getFields() {
+        return fields;
+    } // getFields()
+
+
+    /**
+     * Get the public methods annotated for injection.
+     *
+     * @return list of methods with the injection points of their parameters
+     */
+    List<MethodInjection> getMethods() {
+        return methods;
+    } // getMethods()
+
+
+    /**
+     * Get the public methods annotated as post construct.
+     *
+     * @return list of methods
+     */
+    List<MethodInjection> getPostConstructMethods() {
+        return postConstructMethods;
+    } // getPostConstructMethods()
+
+
+    /**
+     * Get a public method with parameters for a given name.
+     *
+     * @param methodName name of the setter method
+     * @return setter method or null if the class has no such method
+     */
+    MethodInjection getSetter(String methodName) {
+        return setters.get(methodName);
+    } // getSetter()
+
+
+    /**
+     * Get the binder for a property from a properties file.
+     *
+     * The binder is looked up on first request for the property and reused afterwards. Properties without a setter
+     * are only reported once for the class.
+     *
+     * @param property name of the property
+     * @return binder for the property or null if the class has no setter for it
+     */
+    PropertyBinder getPropertyBinder(String property) {
+        PropertyBinder binder = propertyBinders.get(property);
+        if ((binder==null)&&!unknownProperties.contains(property)) {
+            MethodInjection setter = getSetter("set"+Character.toUpperCase(property.charAt(0))+property.substring(1));
+            if (setter==null) {
+                if (unknownProperties.add(property)) {
+                    LOG.warn("getPropertyBinder() no setter method found for property {} of {}", property, type.getName());
+                } // if
+            } else {
+                binder = propertyBinders.computeIfAbsent(property, p -> new PropertyBinder(setter));
+            } // if
+        } // if
+        return binder;
+    } // getPropertyBinder()
+
+} // InjectionPlan
@@ -0,0 +1,140 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+
+
+/**
+ * Set of path prefixes matched against file and entry names character by character.
+ *
+ * Matching walks the trie along the characters of the name and never allocates. The platform's file separator is
+ * treated like a slash, so names of files from directories and of JAR entries can be matched alike.
+ */
+final class PrefixTrie {
+
+    private char[] chars = new char[0];
+
+    private PrefixTrie[] children = new PrefixTrie[0];
+
+    private boolean terminal;
+
+
+    /**
+     * Create a trie for the given prefixes.
+     *
+     * @param prefixes path prefixes with slashes as separators
+     */
+    PrefixTrie(Collection<String> prefixes) {
+        for (String prefix : prefixes) {
+            add(prefix);
+        } // for
+    } // PrefixTrie()
+
+
+    /**
+     * Create an empty node.
+     */
+    private PrefixTrie() {
+    } // PrefixTrie()
+
+
+    /**
+     * Add a prefix below this node.
+     *
+     * @param prefix path prefix with slashes as separators
+     */
+    private void add(String prefix) {
+        PrefixTrie node = this;
+        for (int i = 0; i<prefix.length(); i++) {
+            PrefixTrie child = node.getChild(prefix.charAt(i));
+            if (child==null) {
+                child = new PrefixTrie();
+                int size = node.chars.length;
+                node.chars = Arrays.copyOf(node.chars, size+1);
+                node.children = Arrays.copyOf(node.children, size+1);
+                node.chars[size] = prefix.charAt(i);
+                node.children[size] = child;
+            } // if
+            node = child;
+        } // for
+        node.terminal = true;
+    } // add()
+
+
+    /**
+     * Find the child node for a character.
+     *
+     * @param c character
+     * @return child node or null if no prefix continues with the given character
+     */
+    private PrefixTrie getChild(char c) {
+        for (int i = 0; i<chars.length; i++) {
+            if (chars[i]==c) {
+                return children[i];
+            } // if
+        } // for
+        return null;
+    } // getChild()
+
+
+    /**
+     * Tell if a name starts with any of the prefixes.
+     *
+     * @param name file or entry name
+     * @return true if one of the prefixes is a prefix of the name
+     */
+    boolean matches(String name) {
+        PrefixTrie node = this;
+        for (int i = 0; !node.terminal; i++) {
+            if (i==name.length()) {
+                return false;
+            } // if
+            char c = name.charAt(i);
+            node = node.getChild((c==File.separatorChar) ? '/' : c);
+            if (node==null) {
+                return false;
+            } // if
+        } // for
+        return true;
+    } // matches()
+
+
+    /**
+     * Tell if a name starts with any of the prefixes or is the beginning of one of them.
+     * Used to tell if a directory might contain names matching the prefixes.
+     *
+     * @param name directory name
+     * @return true if a prefix is a prefix of the name or the name is a prefix of a prefix
+     */
+    boolean leadsTo(String name) {
+        PrefixTrie node = this;
+        for (int i = 0; !node.terminal&&(i<name.length()); i++) {
+            char c = name.charAt(i);
+            node = node.getChild((c==File.separatorChar) ? '/' : c);
+            if (node==null) {
+                return false;
+            } // if
+        } // for
+        return true;
+    } // leadsTo()
+
+} // PrefixTrie
@@ -0,0 +1,318 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Scan results of JAR files kept in a file between runs.
+ *
+ * Each JAR file is identified by its path, size, and modification time. Only JAR files which changed since the
+ * cache file has been written need to be scanned again. Since the results depend on the packages scanned and the
+ * scan filter, a cache file written for other packages or filters is ignored.
+ *
+ * The file starts with a table of all strings used - class names, annotation names, and paths - followed by the
+ * entries referencing these strings by index. It is read through a memory mapped buffer in one go.
+ */
+final class ScanCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ScanCache.class);
+
+    private static final int MAGIC = 0x44715363;
+
+    private static final int VERSION = 1;
+
+    private static final int NO_CLASS_FILE = -1;
+
+    private final File file;
+
+    private final String packages;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private final Map<String, Entry> used = new ConcurrentHashMap<>();
+
+    private volatile boolean modified;
+
+
+    /**
+     * Scan result of a single JAR file.
+     */
+    private static final class Entry {
+
+        private final long size;
+
+        private final long lastModified;
+
+        private final ScanResult result;
+
+
+        /**
+         * Create an entry for a scanned JAR file.
+         *
+         * @param size size of the JAR file
+         * @param lastModified modification time of the JAR file
+         * @param result scan result of the JAR file
+         */
+        Entry(long size, long lastModified, ScanResult result) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.result = result;
+        } // Entry()
+
+    } // Entry
+
+
+    /**
+     * Create a scan cache and read its contents if the file exists.
+     *
+     * @param file file to read the cache from and write it to
+     * @param packageNames names of the scanned packages
+     * @param filter filter applied while scanning
+     */
+    ScanCache(File file, Collection<String> packageNames, ScanFilter filter) {
+        this.file = file;
+        this.packages = String.join(",", new TreeSet<>(packageNames))+' '+filter;
+        if (file.isFile()) {
+            try {
+                read();
+            } catch (IOException|RuntimeException e) {
+                LOG.warn("() ignoring unreadable scan cache {}: {}", file, e.getMessage());
+                entries.clear();
+            } // try/catch
+        } // if
+        LOG.info("() {} cached entries from {}", entries.size(), file);
+    } // ScanCache()
+
+
+    /**
+     * Get the cached scan result of a JAR file if it didn't change.
+     *
+     * @param jar JAR file
+     * @return scan result or null if the file is not cached or changed since
+     */
+    ScanResult get(File jar) {
+        String path = jar.getAbsolutePath();
+        Entry entry = entries.get(path);
+        if ((entry==null)||(entry.size!=jar.length())||(entry.lastModified!=jar.lastModified())) {
+            return null;
+        } // if
+        used.put(path, entry);
+        return entry.result;
+    } // get()
+
+
+    /**
+     * Remember the scan result of a JAR file.
+     *
+     * @param jar JAR file
+     * @param result scan result
+     */
+    void put(File jar, ScanResult result) {
+        used.put(jar.getAbsolutePath(), new Entry(jar.length(), jar.lastModified(), result));
+        modified = true;
+    } // put()
+
+
+    /**
+     * Write the cache file if any JAR file has been scanned or disappeared.
+     * Only the JAR files used since the cache has been read are kept.
+     */
+    void write() {
+        if (!modified&&(used.size()==entries.size())) {
+            return;
+        } // if
+        try {
+            Path target = file.getAbsoluteFile().toPath();
+            Path temp = Files.createTempFile(target.getParent(), file.getName(), ".tmp");
+            try (OutputStream os = Files.newOutputStream(temp)) {
+                write(os);
+            } // try
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOG.info("write() {} entries to {}", used.size(), file);
+        } catch (IOException e) {
+            LOG.warn("write() cannot write scan cache {}: {}", file, e.getMessage());
+        } // try/catch
+    } // write()
+
+
+    /**
+     * Get the index of a string in the string table - adding it if necessary.
+     *
+     * @param strings string table
+     * @param string string to look up
+     * @return index of the string
+     */
+    private static int index(Map<String, Integer> strings, String string) {
+        return strings.computeIfAbsent(string, s -> strings.size());
+    } // index()
+
+
+    /**
+     * Write a list of strings as indexes into the string table.
+     *
+     * @param out stream to write to
+     * @param strings string table
+     * @param values strings to write
+     * @throws IOException in case of write errors
+     */
+    private static void writeIndexes(DataOutputStream out, Map<String, Integer> strings, Collection<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeInt(index(strings, value));
+        } // for
+    } // writeIndexes()
+
+
+    /**
+     * Write the cache contents.
+     *
+     * @param os stream to write to
+     * @throws IOException in case of write errors
+     */
+    private void write(OutputStream os) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        out.writeInt(index(strings, packages));
+        out.writeInt(used.size());
+        for (Map.Entry<String, Entry> e : used.entrySet()) {
+            Entry entry = e.getValue();
+            out.writeInt(index(strings, e.getKey()));
+            out.writeLong(entry.size);
+            out.writeLong(entry.lastModified);
+            out.writeInt(entry.result.getClassNames().size());
+            for (String className : entry.result.getClassNames()) {
+                out.writeInt(index(strings, className));
+                ClassFile classFile = entry.result.getClassFiles().get(className);
+                if (classFile==null) {
+                    out.writeInt(NO_CLASS_FILE);
+                } else {
+                    out.writeInt(classFile.getAccessFlags());
+                    out.writeInt((classFile.getSuperclass()==null) ? NO_CLASS_FILE : index(strings, classFile.getSuperclass()));
+                    writeIndexes(out, strings, classFile.getInterfaces());
+                    writeIndexes(out, strings, classFile.getAnnotations());
+                } // if
+            } // for
+            writeIndexes(out, strings, entry.result.getProperties());
+        } // for
+        out.flush();
+
+        DataOutputStream header = new DataOutputStream(os);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        header.writeInt(strings.size());
+        for (String string : strings.keySet()) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            header.writeInt(bytes.length);
+            header.write(bytes);
+        } // for
+        body.writeTo(header);
+        header.flush();
+    } // write()
+
+
+    /**
+     * Read a list of strings given as indexes into the string table.
+     *
+     * @param buffer buffer to read from
+     * @param strings string table
+     * @return list of strings
+     */
+    private static List<String> readIndexes(ByteBuffer buffer, String[] strings) {
+        int count = buffer.getInt();
+        List<String> result = new ArrayList<>(count);
+        for (int i = 0; i<count; i++) {
+            result.add(strings[buffer.getInt()]);
+        } // for
+        return result;
+    } // readIndexes()
+
+
+    /**
+     * Read the cache contents from the file.
+     *
+     * @throws IOException if the file cannot be read or has a wrong format
+     * @throws BufferUnderflowException if the file is truncated
+     */
+    private void read() throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if ((buffer.getInt()!=MAGIC)||(buffer.getInt()!=VERSION)) {
+                throw new IOException("not a scan cache");
+            } // if
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i<strings.length; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            } // for
+            if (!packages.equals(strings[buffer.getInt()])) {
+                LOG.info("read() scan cache {} was written for other packages or filters", file);
+                return;
+            } // if
+            int entryCount = buffer.getInt();
+            for (int i = 0; i<entryCount; i++) {
+                String path = strings[buffer.getInt()];
+                long size = buffer.getLong();
+                long lastModified = buffer.getLong();
+                ScanResult result = new ScanResult();
+                int classCount = buffer.getInt();
+                for (int j = 0; j<classCount; j++) {
+                    String className = strings[buffer.getInt()];
+                    result.getClassNames().add(className);
+                    int accessFlags = buffer.getInt();
+                    if (accessFlags!=NO_CLASS_FILE) {
+                        int superclass = buffer.getInt();
+                        List<String> interfaces = readIndexes(buffer, strings);
+                        List<String> annotations = readIndexes(buffer, strings);
+                        String superclassName = (superclass==NO_CLASS_FILE) ? null : strings[superclass];
+                        result.getClassFiles().put(className, new ClassFile(className, accessFlags, superclassName, interfaces, annotations));
+                    } // if
+                } // for
+                result.getProperties().addAll(readIndexes(buffer, strings));
+                entries.put(path, new Entry(size, lastModified, result));
+            } // for
+        } // try
+    } // read()
+
+} // ScanCache
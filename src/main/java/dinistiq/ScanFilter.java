@@ -0,0 +1,247 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+
+/**
+ * Include and exclude patterns for the classes, properties files, and JAR files considered when scanning the
+ * class path.
+ *
+ * Patterns are globs unless they start with "regex:". In class name globs a single * matches within one package
+ * level and ** matches across levels. In resource and JAR file globs the same holds for path segments. JAR file
+ * globs without a slash are matched against the file name only.
+ *
+ * Without include patterns everything is included. Exclude patterns are applied after the include patterns.
+ */
+public class ScanFilter {
+
+    private static final String REGEX_PREFIX = "regex:";
+
+    private final List<Pattern> classIncludes = new ArrayList<>();
+
+    private final List<Pattern> classExcludes = new ArrayList<>();
+
+    private final List<Pattern> resourceIncludes = new ArrayList<>();
+
+    private final List<Pattern> resourceExcludes = new ArrayList<>();
+
+    private final List<Pattern> jarIncludes = new ArrayList<>();
+
+    private final List<Pattern> jarExcludes = new ArrayList<>();
+
+    private final StringBuilder description = new StringBuilder();
+
+
+    /**
+     * Convert a glob or regular expression to a pattern.
+     *
+     * @param glob glob or regular expression prefixed with "regex:"
+     * @param separator character separating the levels of names
+     * @return compiled pattern
+     */
+    static Pattern toPattern(String glob, char separator) {
+        if (glob.startsWith(REGEX_PREFIX)) {
+            return Pattern.compile(glob.substring(REGEX_PREFIX.length()));
+        } // if
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i<glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c=='*') {
+                if ((i+1<glob.length())&&(glob.charAt(i+1)=='*')) {
+                    regex.append(".*");
+                    i++;
+                } else {
+                    regex.append("[^").append(Pattern.quote(String.valueOf(separator))).append("]*");
+                } // if
+            } else if (c=='?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            } // if
+        } // for
+        return Pattern.compile(regex.toString());
+    } // toPattern()
+
+
+    /**
+     * Add patterns to a list of patterns.
+     *
+     * @param list list to add the patterns to
+     * @param kind kind of the patterns for the description
+     * @param separator character separating the levels of names
+     * @param globs globs or regular expressions - blank ones are ignored
+     * @return this filter
+     */
+    private ScanFilter add(List<Pattern> list, String kind, char separator, String... globs) {
+        for (String glob : globs) {
+            if (Dinistiq.isNotBlank(glob)) {
+                list.add(toPattern(glob.trim(), separator));
+                description.append(kind).append('=').append(glob.trim()).append(';');
+            } // if
+        } // for
+        return this;
+    } // add()
+
+
+    /**
+     * Only consider classes matching one of the given patterns.
+     *
+     * @param globs class name globs or regular expressions
+     * @return this filter
+     */
+    public ScanFilter includeClasses(String... globs) {
+        return add(classIncludes, "classes+", '.', globs);
+    } // includeClasses()
+
+
+    /**
+     * Don't consider classes matching one of the given patterns.
+     *
+     * @param globs class name globs or regular expressions
+     * @return this filter
+     */
+    public ScanFilter excludeClasses(String... globs) {
+        return add(classExcludes, "classes-", '.', globs);
+    } // excludeClasses()
+
+
+    /**
+     * Only consider properties files matching one of the given patterns.
+     *
+     * @param globs resource path globs or regular expressions
+     * @return this filter
+     */
+    public ScanFilter includeResources(String... globs) {
+        return add(resourceIncludes, "resources+", '/', globs);
+    } // includeResources()
+
+
+    /**
+     * Don't consider properties files matching one of the given patterns.
+     *
+     * @param globs resource path globs or regular expressions
+     * @return this filter
+     */
+    public ScanFilter excludeResources(String... globs) {
+        return add(resourceExcludes, "resources-", '/', globs);
+    } // excludeResources()
+
+
+    /**
+     * Only scan JAR files matching one of the given patterns.
+     *
+     * @param globs JAR file path or name globs or regular expressions
+     * @return this filter
+     */
+    public ScanFilter includeJars(String... globs) {
+        return add(jarIncludes, "jars+", '/', globs);
+    } // includeJars()
+
+
+    /**
+     * Don't scan JAR files matching one of the given patterns.
+     *
+     * @param globs JAR file path or name globs or regular expressions
+     * @return this filter
+     */
+    public ScanFilter excludeJars(String... globs) {
+        return add(jarExcludes, "jars-", '/', globs);
+    } // excludeJars()
+
+
+    /**
+     * Tell if any of the patterns matches a name.
+     *
+     * @param patterns patterns to check
+     * @param name name to match
+     * @return true if one of the patterns matches
+     */
+    private static boolean matches(List<Pattern> patterns, String name) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(name).matches()) {
+                return true;
+            } // if
+        } // for
+        return false;
+    } // matches()
+
+
+    /**
+     * Apply include and exclude patterns to a name.
+     *
+     * @param includes include patterns
+     * @param excludes exclude patterns
+     * @param name name to check
+     * @return true if the name is to be considered
+     */
+    private static boolean accepts(List<Pattern> includes, List<Pattern> excludes, String name) {
+        return (includes.isEmpty()||matches(includes, name))&&!matches(excludes, name);
+    } // accepts()
+
+
+    /**
+     * Tell if a class is to be considered.
+     *
+     * @param className binary name of the class
+     * @return true if the class passes the filter
+     */
+    public boolean acceptsClass(String className) {
+        return accepts(classIncludes, classExcludes, className);
+    } // acceptsClass()
+
+
+    /**
+     * Tell if a properties file is to be considered.
+     *
+     * @param path resource path of the file
+     * @return true if the file passes the filter
+     */
+    public boolean acceptsResource(String path) {
+        return accepts(resourceIncludes, resourceExcludes, path);
+    } // acceptsResource()
+
+
+    /**
+     * Tell if a JAR file is to be scanned.
+     *
+     * @param path path of the JAR file
+     * @return true if the file passes the filter
+     */
+    public boolean acceptsJar(String path) {
+        String name = path.substring(path.lastIndexOf('/')+1);
+        return (jarIncludes.isEmpty()||matches(jarIncludes, path)||matches(jarIncludes, name))
+                &&!matches(jarExcludes, path)&&!matches(jarExcludes, name);
+    } // acceptsJar()
+
+
+    /**
+     * Describe the filter by its patterns.
+     *
+     * @return patterns of the filter
+     */
+    @Override
+    public String toString() {
+        return description.toString();
+    } // toString()
+
+} // ScanFilter
@@ -0,0 +1,86 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Classes, parsed class files, and properties files found while scanning parts of the class path.
+ *
+ * A scan result is filled by a single thread and only merged into other results when the scan is complete.
+ */
+final class ScanResult {
+
+    private final Set<String> classNames;
+
+    private final Set<String> properties;
+
+    private final Map<String, ClassFile> classFiles;
+
+
+    /**
+     * Create an empty scan result.
+     */
+    ScanResult() {
+        this(new HashSet<>(), new HashSet<>(), new HashMap<>());
+    } // ScanResult()
+
+
+    /**
+     * Create a scan result backed by the given collections.
+     *
+     * @param classNames names of the classes found
+     * @param properties paths of the properties files found
+     * @param classFiles parsed class files by class name
+     */
+    ScanResult(Set<String> classNames, Set<String> properties, Map<String, ClassFile> classFiles) {
+        this.classNames = classNames;
+        this.properties = properties;
+        this.classFiles = classFiles;
+    } // ScanResult()
+
+
+    /**
+     * @return names of the classes found
+     */
+    Set<String> getClassNames() {
+        return classNames;
+    } // getClassNames()
+
+
+    /**
+     * @return paths of the properties files found
+     */
+    Set<String> getProperties() {
+        return properties;
+    } // getProperties()
+
+
+    /**
+     * @return parsed class files by class name
+     */
+    Map<String, ClassFile> getClassFiles() {
+        return classFiles;
+    } // getClassFiles()
+
+} // ScanResult
@@ -20,19 +20,44 @@ package dinistiq;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
 import java.lang.reflect.Modifier;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLDecoder;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.jar.JarEntry;
 import java.util.jar.JarInputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,8 +67,17 @@ import org.slf4j.LoggerFactory;
  * Resolve classes or classnames from a given set of packages.
  *
  * One design goal in finding the classes was to hit the JAR files just once but apart from that this is a
- * far too simple implementation.
+ * far too simple implementation. JAR files are listed through their central directory and only entries in the
+ * given packages and in the dinistiq/ resource folder are considered. All JAR files and directories are scanned
+ * in parallel.
  *
+ * While scanning, the class files are parsed for their supertypes and annotations, so queries only need to load
+ * the classes which might match. Classes are loaded in parallel through the context class loader without running
+ * their static initializers, which only happens when instances are actually created. Loaded classes and query
+ * results are kept, so repeated queries don't load or iterate anything again.
+ *
+ * Subclass queries are answered from an index of the direct subtypes of each type. Supertypes outside the scanned
+ * packages are added to the index by reading their class files as resources.
  */
 public class SimpleClassResolver implements ClassResolver {
 
@@ -51,12 +85,42 @@ public class SimpleClassResolver implements ClassResolver {
 
     private static final Set<String> CLASSES_TO_IGNORE = new HashSet<>();
 
+    private static final String RESOURCE_PATH = "dinistiq/";
+
+    private static final int LOADER_THREADS = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+
     private final Set<String> packageNames;
 
     private final Set<String> properties;
 
     private final Set<String> classNames;
 
+    private final PrefixTrie packagePaths;
+
+    private final Map<String, ClassFile> classFiles = new HashMap<>();
+
+    private final Map<String, Class<?>> loadedClasses = new ConcurrentHashMap<>();
+
+    private final Set<String> failedClasses = ConcurrentHashMap.newKeySet();
+
+    private final Map<List<Object>, Set<?>> results = new ConcurrentHashMap<>();
+
+    private final ScanResult scanned;
+
+    private final ScanCache cache;
+
+    private final ScanFilter filter;
+
+    private Map<String, List<String>> subtypes;
+
+    private final Map<String, ClassFile> externalClassFiles = new HashMap<>();
+
+    private final Set<String> uncertainTypes = new HashSet<>();
+
+    private final Map<String, Boolean> inheritedAnnotations = new ConcurrentHashMap<>();
+
+    private final Map<String, ClassInfo> classInfos = new ConcurrentHashMap<>();
+
 
     /*
      * These classes must be ignored to be able to use Dinistiq without web integration
@@ -94,35 +158,204 @@ public class SimpleClassResolver implements ClassResolver {
     } // addUrlsForPackage()
 
 
+    /**
+     * Derive the name of a top level class from the name of a class file.
+     *
+     * @param name name of a class file of a top level class
+     * @return class name
+     */
+    private String getClassName(String name) {
+        char[] chars = new char[name.length()-6];
+        name.getChars(0, chars.length, chars, 0);
+        for (int i = 0; i<chars.length; i++) {
+            if ((chars[i]=='/')||(chars[i]==File.separatorChar)) {
+                chars[i] = '.';
+            } // if
+        } // for
+        return new String(chars);
+    } // getClassName()
+
+
     /**
      * Checks a file name if it needs to be considered for properties files or derive a class name from.
      *
+     * Names are matched against the package paths without any allocation. Only accepted class and properties
+     * files result in new strings.
+     *
      * @param name name of a file to be scanned
+     * @param result scan result to add the class or properties file to
+     * @return name of the class if the file is an accepted class file which has not been parsed yet - null otherwise
      */
-    protected final void checkClassAndAdd(String name) {
+    private String checkClassAndAdd(String name, ScanResult result) {
         LOG.debug("checkClassAndAdd() name={}", name);
-        if (name.endsWith(".class")&&(name.indexOf('$')<0)) {
-            String n = name.replace(File.separatorChar, '/').replace('/', '.');
-            String className = n.substring(0, n.length()-6);
-            LOG.debug("checkClassAndAdd() class name {}", className);
-            boolean add = false;
-            if (!CLASSES_TO_IGNORE.contains(className)) {
-                for (String packageName : packageNames) {
-                    add = add||className.startsWith(packageName);
-                } // if
-            }
-            if (add) {
+        if (name.endsWith(".class")&&(name.indexOf('$')<0)&&packagePaths.matches(name)) {
+            String className = getClassName(name);
+            if (!CLASSES_TO_IGNORE.contains(className)&&filter.acceptsClass(className)) {
                 LOG.debug("checkClassAndAdd(): {}", className);
-                classNames.add(className);
+                result.getClassNames().add(className);
+                return result.getClassFiles().containsKey(className) ? null : className;
             } // if
         } // if
         if (name.endsWith(".properties")) {
-            LOG.info("checkClassAndAdd() properties {}", name);
-            properties.add(name.replace(File.separatorChar, '/'));
+            String path = name.replace(File.separatorChar, '/');
+            if (isRelevantEntry(path)&&filter.acceptsResource(path)) {
+                LOG.info("checkClassAndAdd() properties {}", path);
+                result.getProperties().add(path);
+            } // if
         } // if
+        return null;
     } // checkClassAndAdd()
 
 
+    /**
+     * Checks a file name if it needs to be considered for properties files or derive a class name from.
+     *
+     * @param name name of a file to be scanned
+     */
+    protected final void checkClassAndAdd(String name) {
+        checkClassAndAdd(name, scanned);
+    } // checkClassAndAdd()
+
+
+    /**
+     * Parse a class file and record its contents.
+     * Classes with unreadable class files are left without recorded contents and will always be loaded for queries.
+     *
+     * @param name name of the scanned file
+     * @param is stream with the contents of the class file
+     * @param result scan result to record the contents in
+     */
+    private void parseClassFile(String name, InputStream is, ScanResult result) {
+        try {
+            ClassFile classFile = ClassFile.parse(is.readAllBytes());
+            result.getClassFiles().put(classFile.getName(), classFile);
+        } catch (IOException e) {
+            LOG.warn("parseClassFile() cannot parse {}: {}", name, e.getMessage());
+        } // try/catch
+    } // parseClassFile()
+
+
+    /**
+     * Tell if a JAR entry might be a class or properties file of interest.
+     *
+     * @param name name of the entry
+     * @return true if the entry is located in one of the package paths or the dinistiq/ resource folder
+     */
+    private boolean isRelevantEntry(String name) {
+        return packagePaths.matches(name)||name.startsWith(RESOURCE_PATH);
+    } // isRelevantEntry()
+
+
+    /**
+     * Scan a JAR file from the local file system through its central directory.
+     * Only class files in the scanned packages are read at all.
+     *
+     * @param file JAR file to scan
+     * @param result scan result to add classes and properties files to
+     * @throws IOException if the file cannot be read
+     */
+    private void scanJar(File file, ScanResult result) throws IOException {
+        try (ZipFile zip = new ZipFile(file)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (!entry.isDirectory()&&isRelevantEntry(name)) {
+                    if (checkClassAndAdd(name, result)!=null) {
+                        try (InputStream is = zip.getInputStream(entry)) {
+                            parseClassFile(name, is, result);
+                        } // try
+                    } // if
+                } // if
+            } // while
+        } // try
+    } // scanJar()
+
+
+    /**
+     * Scan a JAR file which is not available from the local file system by streaming through it.
+     *
+     * @param url location of the JAR file
+     * @param result scan result to add classes and properties files to
+     * @throws IOException if the file cannot be read
+     */
+    private void scanJar(URL url, ScanResult result) throws IOException {
+        try (JarInputStream is = new JarInputStream(url.openStream())) {
+            for (JarEntry entry = is.getNextJarEntry(); entry!=null; entry = is.getNextJarEntry()) {
+                String name = entry.getName();
+                if (!entry.isDirectory()&&isRelevantEntry(name)) {
+                    if (checkClassAndAdd(name, result)!=null) {
+                        parseClassFile(name, is, result);
+                    } // if
+                } // if
+            } // for
+        } // try
+    } // scanJar()
+
+
+    /**
+     * Walk a directory tree to scan for properties and class files.
+     *
+     * @param dir base directory to scan recursively
+     * @param basePathLength length of the basePath string
+     * @param result scan result to add classes and properties files to
+     * @throws IOException if the directory tree cannot be read
+     */
+    private void scanDirectory(Path dir, int basePathLength, ScanResult result) throws IOException {
+        LOG.debug("scanDirectory() scanning {}", dir);
+        if (!Files.isDirectory(dir)) {
+            return;
+        } // if
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+
+            /**
+             * Skip directories which cannot contain classes or properties files of interest.
+             */
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
+                String directoryName = directory.toAbsolutePath().toString();
+                if (directoryName.length()<basePathLength) {
+                    return FileVisitResult.CONTINUE;
+                } // if
+                String name = directoryName.substring(basePathLength)+'/';
+                boolean relevant = packagePaths.leadsTo(name)||name.startsWith(RESOURCE_PATH)||RESOURCE_PATH.startsWith(name);
+                return relevant ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+            } // preVisitDirectory()
+
+
+            /**
+             * Check each file for being a class or properties file.
+             */
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                String fileName = file.toAbsolutePath().toString().substring(basePathLength);
+                LOG.debug("scanDirectory() fileName={}", fileName);
+                if (fileName.endsWith(".class")||fileName.endsWith(".properties")) {
+                    if (checkClassAndAdd(fileName, result)!=null) {
+                        try (InputStream is = Files.newInputStream(file)) {
+                            parseClassFile(fileName, is, result);
+                        } catch (IOException e) {
+                            LOG.warn("scanDirectory() cannot read {}: {}", file, e.getMessage());
+                        } // try/catch
+                    } // if
+                } // if
+                return FileVisitResult.CONTINUE;
+            } // visitFile()
+
+
+            /**
+             * Skip unreadable files instead of failing the whole scan.
+             */
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                LOG.warn("scanDirectory() cannot visit {}: {}", file, e.getMessage());
+                return FileVisitResult.CONTINUE;
+            } // visitFileFailed()
+
+        });
+    } // scanDirectory()
+
+
     /**
      * Recurses a given directory to scan for properties and class files.
      *
@@ -130,17 +363,53 @@ public class SimpleClassResolver implements ClassResolver {
      * @param basePathLength length of the basePath string
      */
     protected final void recurseSubDir(File dir, int basePathLength) {
-        LOG.debug("recurseSubDir() scanning {}", dir.getAbsolutePath());
-        for (File f : (dir.isDirectory() ? dir.listFiles() : new File[0])) {
-            String fileName = f.getAbsolutePath().substring(basePathLength);
-            LOG.debug("recurseSubDir() fileName={}", fileName);
-            if (fileName.endsWith(".class")||fileName.endsWith(".properties")) {
-                checkClassAndAdd(fileName);
+        try {
+            scanDirectory(dir.toPath(), basePathLength, scanned);
+        } catch (IOException e) {
+            LOG.error("recurseSubDir()", e);
+        } // try/catch
+    } // recurseSubDir()
+
+
+    /**
+     * Scan a single JAR file or directory tree from the class path.
+     *
+     * @param u location of the JAR file or directory
+     * @return classes and properties files found
+     */
+    private ScanResult scan(URL u) {
+        ScanResult result = new ScanResult();
+        try {
+            String path = URLDecoder.decode(u.getPath(), "UTF-8");
+            LOG.info("scan() path {}", path);
+            if (path.endsWith(".jar")&&!filter.acceptsJar(path)) {
+                LOG.info("scan() skipping jar {}", path);
+            } else if (path.endsWith(".jar")) {
+                LOG.info("scan() scanning jar {}", path);
+                if ("file".equals(u.getProtocol())) {
+                    File jar = new File(path);
+                    ScanResult cached = (cache==null) ? null : cache.get(jar);
+                    if (cached!=null) {
+                        LOG.info("scan() using cached result for {}", path);
+                        return cached;
+                    } // if
+                    scanJar(jar, result);
+                    if (cache!=null) {
+                        cache.put(jar, result);
+                    } // if
+                } else {
+                    scanJar(u, result);
+                } // if
             } else {
-                recurseSubDir(f, basePathLength);
+                File dir = new File(path);
+                int basePathLength = dir.getAbsolutePath().length()+1;
+                scanDirectory(dir.toPath(), basePathLength, result);
             } // if
-        } // for
-    } // recurseSubDir()
+        } catch (IOException e) {
+            LOG.error("scan()", e);
+        } // try/catch
+        return result;
+    } // scan()
 
 
     /**
@@ -149,38 +418,82 @@ public class SimpleClassResolver implements ClassResolver {
      * @param packageNames Set of string names for pakckges to scan
      */
     public SimpleClassResolver(Set<String> packageNames) {
+        this(packageNames, null, null);
+    } // SimpleClassResolver()
+
+
+    /**
+     * Initialize class resolver with a given set of package names to scan.
+     *
+     * @param packageNames Set of string names for pakckges to scan
+     * @param cacheFile file to keep scan results of JAR files in between runs - may be null
+     */
+    public SimpleClassResolver(Set<String> packageNames, File cacheFile) {
+        this(packageNames, cacheFile, null);
+    } // SimpleClassResolver()
+
+
+    /**
+     * Initialize class resolver with a given set of package names to scan.
+     *
+     * The JAR files and directories from the class path are scanned in parallel and the results are merged when
+     * all of them are done. If a cache file is given, JAR files unchanged since the last run are not scanned again.
+     * Directories are always scanned.
+     *
+     * The scan filter further restricts the classes, properties files, and JAR files taken into account.
+     *
+     * @param packageNames Set of string names for pakckges to scan
+     * @param cacheFile file to keep scan results of JAR files in between runs - may be null
+     * @param filter filter for classes, properties files, and JAR files - may be null
+     */
+    public SimpleClassResolver(Set<String> packageNames, File cacheFile, ScanFilter filter) {
         this.packageNames = new HashSet<>(packageNames);
         // to have the properties files in the path which we intend to use for configuration
         this.packageNames.add(this.getClass().getPackage().getName());
+        this.filter = (filter==null) ? new ScanFilter() : filter;
+        cache = (cacheFile==null) ? null : new ScanCache(cacheFile, this.packageNames, this.filter);
 
         properties = new HashSet<>();
         classNames = new HashSet<>();
+        scanned = new ScanResult(classNames, properties, classFiles);
         Set<URL> urls = new HashSet<>();
+        Set<String> paths = new HashSet<>();
         for (String packageName : this.packageNames) {
             addUrlsForPackage(urls, packageName);
+            paths.add(packageName.replace('.', '/'));
         } // if
+        packagePaths = new PrefixTrie(paths);
         LOG.debug("() url # {}", urls.size());
-        for (URL u : urls) {
+        List<ScanResult> scanResults = new ArrayList<>();
+        int threads = Math.min(Runtime.getRuntime().availableProcessors(), urls.size());
+        if (threads<2) {
+            for (URL u : urls) {
+                scanResults.add(scan(u));
+            } // for
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(threads);
             try {
-                String path = URLDecoder.decode(u.getPath(), "UTF-8");
-                LOG.info("(): path {}", path);
-                if (path.endsWith(".jar")) {
-                    LOG.info("(): scanning jar {}", path);
-                    try ( JarInputStream is = new JarInputStream(u.openStream())) {
-                        for (JarEntry entry = is.getNextJarEntry(); entry!=null; entry = is.getNextJarEntry()) {
-                            LOG.info("(): entry {}", entry.getName());
-                            checkClassAndAdd(entry.getName());
-                        } // for
-                    }
-                } else {
-                    File dir = new File(path);
-                    int basePathLength = dir.getAbsolutePath().length()+1;
-                    recurseSubDir(dir, basePathLength);
-                } // if
-            } catch (IOException e) {
-                LOG.error("()", e);
-            } // try/catch
+                scanResults = pool.submit(() -> urls.parallelStream().map(this::scan).collect(Collectors.toList())).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("scan interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("scan failed", e.getCause());
+            } finally {
+                pool.shutdown();
+            } // try/catch/finally
+        } // if
+        for (ScanResult result : scanResults) {
+            classNames.addAll(result.getClassNames());
+            properties.addAll(result.getProperties());
+            for (Map.Entry<String, ClassFile> classFile : result.getClassFiles().entrySet()) {
+                classFiles.putIfAbsent(classFile.getKey(), classFile.getValue());
+            } // for
         } // for
+        if (cache!=null) {
+            cache.write();
+        } // if
+        LOG.info("() {} classes and {} properties files found", classNames.size(), properties.size());
     } // SimpleClassResolver()
 
 
@@ -189,35 +502,285 @@ public class SimpleClassResolver implements ClassResolver {
      *
      * @param <T>
      * @param className
-     * @return simply returns Class.forName(classname)
+     * @param classLoader class loader to load the class with
+     * @return loaded class which is not initialized
      * @throws ClassNotFoundException
      */
     @SuppressWarnings("unchecked")
-    private <T extends Object> Class<T> loadClass(String className) throws ClassNotFoundException {
-        return (Class<T>) Class.forName(className);
+    private <T extends Object> Class<T> loadClass(String className, ClassLoader classLoader) throws ClassNotFoundException {
+        return (Class<T>) Class.forName(className, false, classLoader);
     } // loadClass()
 
 
     /**
-     * Helper method for all API methods which have to scan all detected classes.
+     * Load a class and remember it - logging problems instead of failing.
      *
+     * @param className name of the class
+     * @param classLoader class loader to load the class with
+     */
+    private void addClass(String className, ClassLoader classLoader) {
+        try {
+            LOG.debug("addClass() className={}", className);
+            loadedClasses.put(className, loadClass(className, classLoader));
+        } catch (ClassNotFoundException|Error e) {
+            failedClasses.add(className);
+            LOG.error("addClass() file format error for class name "+className, e);
+        } // try/catch
+    } // addClass()
+
+
+    /**
+     * Get the class loader to load classes and class file resources with.
+     *
+     * @return context class loader if present - the class loader of this class otherwise
+     */
+    private ClassLoader getClassLoader() {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return (contextClassLoader==null) ? getClass().getClassLoader() : contextClassLoader;
+    } // getClassLoader()
+
+
+    /**
+     * Read the class file of a type outside the scanned classes as a resource.
+     *
+     * @param name binary name of the type
+     * @param classLoader class loader to obtain the resource from
+     * @return parsed class file or null if the class file cannot be found or parsed
+     */
+    private ClassFile readExternalClassFile(String name, ClassLoader classLoader) {
+        String resource = name.replace('.', '/')+".class";
+        try (InputStream is = classLoader.getResourceAsStream(resource)) {
+            if (is!=null) {
+                return ClassFile.parse(is.readAllBytes());
+            } // if
+        } catch (IOException e) {
+            LOG.warn("readExternalClassFile() cannot parse {}: {}", resource, e.getMessage());
+        } // try/catch
+        return null;
+    } // readExternalClassFile()
+
+
+    /**
+     * Add the supertypes of a type to the index of direct subtypes.
+     *
+     * @param index index to add the supertypes to
+     * @param classFile parsed class file of the type
+     * @param pending queue of types to look up the class files for
+     */
+    private void addSupertypes(Map<String, List<String>> index, ClassFile classFile, Deque<String> pending) {
+        List<String> supertypes = new ArrayList<>(classFile.getInterfaces());
+        if (classFile.getSuperclass()!=null) {
+            supertypes.add(classFile.getSuperclass());
+        } // if
+        for (String supertype : supertypes) {
+            index.computeIfAbsent(supertype, k -> new ArrayList<>()).add(classFile.getName());
+            pending.add(supertype);
+        } // for
+    } // addSupertypes()
+
+
+    /**
+     * Get the index of all direct subtypes for each type - building it on first use.
+     *
+     * The index contains all scanned classes and all their supertypes. Types which cannot be resolved and all types
+     * below them are recorded as uncertain since they might be subtypes of any type.
+     *
+     * @return map from the type names to the names of their direct subtypes
+     */
+    private synchronized Map<String, List<String>> getSubtypeIndex() {
+        if (subtypes==null) {
+            Map<String, List<String>> index = new HashMap<>();
+            Deque<String> pending = new ArrayDeque<>();
+            for (ClassFile classFile : classFiles.values()) {
+                addSupertypes(index, classFile, pending);
+            } // for
+            Set<String> unresolved = new HashSet<>();
+            ClassLoader classLoader = getClassLoader();
+            while (!pending.isEmpty()) {
+                String name = pending.poll();
+                if (classFiles.containsKey(name)||externalClassFiles.containsKey(name)||unresolved.contains(name)) {
+                    continue;
+                } // if
+                ClassFile classFile = readExternalClassFile(name, classLoader);
+                if (classFile==null) {
+                    unresolved.add(name);
+                } else {
+                    externalClassFiles.put(name, classFile);
+                    addSupertypes(index, classFile, pending);
+                } // if
+            } // while
+            // scanned classes without class file information might be anywhere in the hierarchy
+            for (String className : classNames) {
+                if (!classFiles.containsKey(className)) {
+                    unresolved.add(className);
+                } // if
+            } // for
+            collectSubtypes(index, unresolved, uncertainTypes);
+            LOG.info("getSubtypeIndex() {} types, {} read as resources, {} unresolved", index.size(), externalClassFiles.size(), unresolved.size());
+            subtypes = index;
+        } // if
+        return subtypes;
+    } // getSubtypeIndex()
+
+
+    /**
+     * Collect the given types and all their direct and indirect subtypes.
+     *
+     * @param index index of the direct subtypes
+     * @param types names of the types to start with
+     * @param result set to add the collected type names to
+     */
+    private void collectSubtypes(Map<String, List<String>> index, Collection<String> types, Set<String> result) {
+        Deque<String> queue = new ArrayDeque<>(types);
+        while (!queue.isEmpty()) {
+            String name = queue.poll();
+            if (result.add(name)) {
+                queue.addAll(index.getOrDefault(name, Collections.emptyList()));
+            } // if
+        } // while
+    } // collectSubtypes()
+
+
+    /**
+     * Get the names of all types which might be subtypes of a given type.
+     *
+     * @param type type to look for the subtypes of
+     * @return names of the type itself, its subtypes from the index, and all uncertain types
+     */
+    private Set<String> getSubtypeCandidates(Class<?> type) {
+        Map<String, List<String>> index = getSubtypeIndex();
+        Set<String> result = new HashSet<>(uncertainTypes);
+        collectSubtypes(index, List.of(type.getName()), result);
+        return result;
+    } // getSubtypeCandidates()
+
+
+    /**
+     * Get the parsed class file of a scanned class or of one of the supertypes read as resources.
+     *
+     * @param name binary name of the type
+     * @return parsed class file or null if the type is unknown
+     */
+    private ClassFile getClassFile(String name) {
+        ClassFile classFile = classFiles.get(name);
+        if (classFile==null) {
+            getSubtypeIndex();
+            synchronized (this) {
+                classFile = externalClassFiles.get(name);
+            } // synchronized
+        } // if
+        return classFile;
+    } // getClassFile()
+
+
+    /**
+     * Tell if a class might have a given annotation according to the parsed class files.
+     *
+     * @param classFile parsed class file of the class
+     * @param annotation annotation type to look for
+     * @return false if the class definitely doesn't have the annotation
+     */
+    private boolean mayBeAnnotated(ClassFile classFile, Class<? extends Annotation> annotation) {
+        String annotationName = annotation.getName();
+        boolean inherited = annotation.isAnnotationPresent(Inherited.class);
+        for (ClassFile c = classFile; c!=null; c = getClassFile(c.getSuperclass())) {
+            if (c.getAnnotations().contains(annotationName)) {
+                return true;
+            } // if
+            if (!inherited||(c.getSuperclass()==null)) {
+                return false;
+            } // if
+        } // for
+        // the superclass is unknown and might carry the annotation
+        return true;
+    } // mayBeAnnotated()
+
+
+    /**
+     * Check if the parsed class file forbids instanciation of a class.
+     *
+     * @param classFile parsed class file of the class
+     * @return true for interfaces and abstract classes
+     */
+    private boolean isAbstract(ClassFile classFile) {
+        return (classFile.getAccessFlags()&(Modifier.INTERFACE|Modifier.ABSTRACT))!=0;
+    } // isAbstract()
+
+
+    /**
+     * Helper method for all API methods which have to scan detected classes.
+     *
+     * Only classes which might satisfy a given condition on the parsed class file are loaded. Classes without a
+     * parsed class file are always loaded. The classes are loaded by a bounded number of threads and are not
+     * initialized. Each class is loaded only once for all queries.
+     *
+     * @param candidate condition for a class to be loaded
      * @return collection of classes for the collected class names.
      */
-    private <T extends Object> Collection<Class<T>> getClasses() {
-        Set<Class<T>> result = new HashSet<>();
+    @SuppressWarnings("unchecked")
+    private <T extends Object> Collection<Class<T>> getClasses(Predicate<ClassFile> candidate) {
+        List<String> candidates = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
         for (String className : classNames) {
+            ClassFile classFile = classFiles.get(className);
+            if ((classFile==null)||candidate.test(classFile)) {
+                candidates.add(className);
+                if (!loadedClasses.containsKey(className)&&!failedClasses.contains(className)) {
+                    missing.add(className);
+                } // if
+            } // if
+        } // for
+        ClassLoader classLoader = getClassLoader();
+        int threads = Math.min(LOADER_THREADS, missing.size());
+        if (threads<2) {
+            for (String className : missing) {
+                addClass(className, classLoader);
+            } // for
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(threads);
             try {
-                LOG.debug("getClasses() className={}", className);
-                Class<T> cls = loadClass(className);
-                result.add(cls);
-            } catch (ClassNotFoundException|Error e) {
-                LOG.error("getClasses() file format error for class name "+className, e);
-            } // try/catch
+                pool.submit(() -> missing.parallelStream().forEach(className -> addClass(className, classLoader))).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOG.error("getClasses() interrupted", e);
+            } catch (ExecutionException e) {
+                LOG.error("getClasses()", e.getCause());
+            } finally {
+                pool.shutdown();
+            } // try/catch/finally
+        } // if
+        List<Class<T>> result = new ArrayList<>(candidates.size());
+        for (String className : candidates) {
+            Class<?> cls = loadedClasses.get(className);
+            if (cls!=null) {
+                result.add((Class<T>) cls);
+            } // if
         } // for
+        LOG.debug("getClasses() loaded {} of {} classes", missing.size(), classNames.size());
         return result;
     } // getClasses()
 
 
+    /**
+     * Get the result of a query which is only computed on the first call.
+     *
+     * @param <T>
+     * @param key query method and parameters
+     * @param query computation of the result
+     * @return unmodifiable result set
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends Object> Set<Class<T>> memoize(List<Object> key, Supplier<Set<Class<T>>> query) {
+        Set<?> result = results.get(key);
+        if (result==null) {
+            result = Collections.unmodifiableSet(query.get());
+            Set<?> previous = results.putIfAbsent(key, result);
+            result = (previous==null) ? result : previous;
+        } // if
+        return (Set<Class<T>>) result;
+    } // memoize()
+
+
     /**
      * Get classes from underlying packages satisfying the given superclass which are no interfaces and not abstract.
      *
@@ -225,16 +788,19 @@ public class SimpleClassResolver implements ClassResolver {
      */
     @Override
     public <T extends Object> Set<Class<T>> getSubclasses(Class<T> c) {
-        Set<Class<T>> result = new HashSet<>();
-        LOG.debug("getSubclasses() checking {} classes", classNames.size());
-        Collection<Class<T>> classes = getClasses();
-        for (Class<T> cls : classes) {
-            LOG.debug("getSubclasses() className={}", cls.getName());
-            if ((!cls.isInterface())&&c.isAssignableFrom(cls)&&((cls.getModifiers()&Modifier.ABSTRACT)==0)) {
-                result.add(cls);
-            } // if
-        } // for
-        return result;
+        return memoize(List.of("getSubclasses", c), () -> {
+            Set<Class<T>> result = new HashSet<>();
+            LOG.debug("getSubclasses() checking {} classes", classNames.size());
+            Set<String> candidates = getSubtypeCandidates(c);
+            Collection<Class<T>> classes = getClasses(cf -> !isAbstract(cf)&&candidates.contains(cf.getName()));
+            for (Class<T> cls : classes) {
+                LOG.debug("getSubclasses() className={}", cls.getName());
+                if ((!cls.isInterface())&&c.isAssignableFrom(cls)&&((cls.getModifiers()&Modifier.ABSTRACT)==0)) {
+                    result.add(cls);
+                } // if
+            } // for
+            return result;
+        });
     } // getSubclasses()
 
 
@@ -245,16 +811,18 @@ public class SimpleClassResolver implements ClassResolver {
      */
     @Override
     public <T extends Object> Set<Class<T>> getAnnotated(Class<? extends Annotation> annotation) {
-        Set<Class<T>> result = new HashSet<>();
-        LOG.debug("getAnnotated() checking {} classes", classNames.size());
-        Collection<Class<T>> classes = getClasses();
-        for (Class<T> cls : classes) {
-            LOG.debug("getAnnotated() className={}", cls.getName());
-            if ((!cls.isInterface())&&(cls.getAnnotation(annotation)!=null)&&((cls.getModifiers()&Modifier.ABSTRACT)==0)) {
-                result.add(cls);
+        return memoize(List.of("getAnnotated", annotation), () -> {
+            Set<Class<T>> result = new HashSet<>();
+            LOG.debug("getAnnotated() checking {} classes", classNames.size());
+            Collection<Class<T>> classes = getClasses(cf -> !isAbstract(cf)&&mayBeAnnotated(cf, annotation));
+            for (Class<T> cls : classes) {
+                LOG.debug("getAnnotated() className={}", cls.getName());
+                if ((!cls.isInterface())&&(cls.getAnnotation(annotation)!=null)&&((cls.getModifiers()&Modifier.ABSTRACT)==0)) {
+                    result.add(cls);
+                } // if
             } // if
-        } // if
-        return result;
+            return result;
+        });
     } // getAnnotated()
 
 
@@ -265,16 +833,18 @@ public class SimpleClassResolver implements ClassResolver {
      */
     @Override
     public <T extends Object> Set<Class<T>> getAnnotatedItems(Class<? extends Annotation> annotation) {
-        Set<Class<T>> result = new HashSet<>();
-        LOG.debug("getAnnotatedItems() checking {} classes", classNames.size());
-        Collection<Class<T>> classes = getClasses();
-        for (Class<T> cls : classes) {
-            LOG.debug("getAnnotatedItems() className={}", cls.getName());
-            if (cls.getAnnotation(annotation)!=null) {
-                result.add(cls);
+        return memoize(List.of("getAnnotatedItems", annotation), () -> {
+            Set<Class<T>> result = new HashSet<>();
+            LOG.debug("getAnnotatedItems() checking {} classes", classNames.size());
+            Collection<Class<T>> classes = getClasses(cf -> mayBeAnnotated(cf, annotation));
+            for (Class<T> cls : classes) {
+                LOG.debug("getAnnotatedItems() className={}", cls.getName());
+                if (cls.getAnnotation(annotation)!=null) {
+                    result.add(cls);
+                } // if
             } // if
-        } // if
-        return result;
+            return result;
+        });
     } // getAnnotated()
 
 
@@ -285,16 +855,19 @@ public class SimpleClassResolver implements ClassResolver {
      */
     @Override
     public <T extends Object> Set<Class<T>> getAnnotatedSubclasses(Class<T> c, Class<? extends Annotation> annotation) {
-        Set<Class<T>> result = new HashSet<>();
-        LOG.debug("getAnnotatedSubclasses() checking {} classes", classNames.size());
-        Collection<Class<T>> classes = getClasses();
-        for (Class<T> cls : classes) {
-            LOG.debug("getAnnotatedSubclasses() className={}", cls.getName());
-            if ((cls.getAnnotation(annotation)!=null)&&c.isAssignableFrom(cls)&&(!cls.isInterface())) {
-                result.add(cls);
+        return memoize(List.of("getAnnotatedSubclasses", c, annotation), () -> {
+            Set<Class<T>> result = new HashSet<>();
+            LOG.debug("getAnnotatedSubclasses() checking {} classes", classNames.size());
+            Set<String> candidates = getSubtypeCandidates(c);
+            Collection<Class<T>> classes = getClasses(cf -> ((cf.getAccessFlags()&Modifier.INTERFACE)==0)&&candidates.contains(cf.getName())&&mayBeAnnotated(cf, annotation));
+            for (Class<T> cls : classes) {
+                LOG.debug("getAnnotatedSubclasses() className={}", cls.getName());
+                if ((cls.getAnnotation(annotation)!=null)&&c.isAssignableFrom(cls)&&(!cls.isInterface())) {
+                    result.add(cls);
+                } // if
             } // if
-        } // if
-        return result;
+            return result;
+        });
     } // getAnnotatedSubclasses()
 
 
@@ -313,4 +886,97 @@ public class SimpleClassResolver implements ClassResolver {
         return result;
     } // getProperties()
 
+
+    /**
+     * Tell if an annotation type is annotated as inherited according to its class file.
+     *
+     * @param annotationName name of the annotation type
+     * @return true if the annotation is inherited by subclasses
+     */
+    private boolean isInherited(String annotationName) {
+        return inheritedAnnotations.computeIfAbsent(annotationName, name -> {
+            ClassFile classFile = readExternalClassFile(name, getClassLoader());
+            return (classFile!=null)&&classFile.getAnnotations().contains(Inherited.class.getName());
+        });
+    } // isInherited()
+
+
+    /**
+     * Derive class metadata from the parsed class files of a class and its supertypes.
+     *
+     * @param classFile parsed class file of the class
+     * @return class metadata
+     */
+    private ClassInfo createClassInfo(ClassFile classFile) {
+        Set<String> annotations = new LinkedHashSet<>(classFile.getAnnotations());
+        for (ClassFile c = getClassFile(classFile.getSuperclass()); c!=null; c = getClassFile(c.getSuperclass())) {
+            for (String annotation : c.getAnnotations()) {
+                if (isInherited(annotation)) {
+                    annotations.add(annotation);
+                } // if
+            } // for
+            if (c.getSuperclass()==null) {
+                break;
+            } // if
+        } // for
+        Set<String> supertypes = new LinkedHashSet<>();
+        Deque<ClassFile> queue = new ArrayDeque<>();
+        queue.add(classFile);
+        while (!queue.isEmpty()) {
+            ClassFile c = queue.poll();
+            List<String> direct = new ArrayList<>();
+            if (c.getSuperclass()!=null) {
+                direct.add(c.getSuperclass());
+            } // if
+            direct.addAll(c.getInterfaces());
+            for (String supertype : direct) {
+                ClassFile supertypeFile = supertypes.add(supertype) ? getClassFile(supertype) : null;
+                if (supertypeFile!=null) {
+                    queue.add(supertypeFile);
+                } // if
+            } // for
+        } // while
+        int modifiers = classFile.getAccessFlags()&(Modifier.PUBLIC|Modifier.FINAL|Modifier.ABSTRACT|Modifier.INTERFACE);
+        return new ClassInfo(classFile.getName(), modifiers, annotations, supertypes);
+    } // createClassInfo()
+
+
+    /**
+     * Get the metadata of a scanned class.
+     *
+     * @param className name of the class
+     * @return class metadata or null if the class could neither be parsed nor loaded
+     */
+    private ClassInfo getClassInfo(String className) {
+        ClassInfo result = classInfos.get(className);
+        if (result==null) {
+            ClassFile classFile = classFiles.get(className);
+            if (classFile!=null) {
+                result = createClassInfo(classFile);
+            } else {
+                if (!loadedClasses.containsKey(className)&&!failedClasses.contains(className)) {
+                    addClass(className, getClassLoader());
+                } // if
+                Class<?> cls = loadedClasses.get(className);
+                result = (cls==null) ? null : ClassInfo.of(cls);
+            } // if
+            if (result!=null) {
+                classInfos.putIfAbsent(className, result);
+            } // if
+        } // if
+        return result;
+    } // getClassInfo()
+
+
+    /**
+     * Stream the metadata of the scanned classes derived from their class files.
+     * Only classes with class files which could not be parsed are loaded to obtain their metadata.
+     *
+     * @see ClassResolver#getClassInfos()
+     */
+    @Override
+    public Stream<ClassInfo> getClassInfos() {
+        return classNames.stream().map(this::getClassInfo).filter(Objects::nonNull);
+    } // getClassInfos()
+
 } // SimpleClassResolver
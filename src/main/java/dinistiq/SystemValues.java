@@ -0,0 +1,152 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Values from the system properties and the environment resolved on demand instead of being copied to the scope.
+ *
+ * Values looking like URLs can also be accessed by their parts with the suffixes .protocol, .host, .port, .uri,
+ * .username, and .password appended to their names. A value is only split when one of its parts is requested for
+ * the first time.
+ */
+final class SystemValues {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SystemValues.class);
+
+    private static final List<String> URL_PARTS = List.of(".protocol", ".host", ".port", ".uri", ".username", ".password");
+
+    private final Map<String, Map<String, String>> urlParts = new ConcurrentHashMap<>();
+
+
+    /**
+     * Get a value from the system properties or the environment.
+     *
+     * System properties take precedence over URL parts, which take precedence over environment variables.
+     *
+     * @param name name of the value
+     * @return value or null if there is no such value - always null for empty names
+     */
+    String get(String name) {
+        if (name.isEmpty()) {
+            return null;
+        } // if
+        String result = System.getProperty(name);
+        if (result!=null) {
+            return result;
+        } // if
+        for (String suffix : URL_PARTS) {
+            if (name.endsWith(suffix)&&(name.length()>suffix.length())) {
+                String base = name.substring(0, name.length()-suffix.length());
+                result = urlParts.computeIfAbsent(base, this::splitUrls).get(name);
+                if (result!=null) {
+                    return result;
+                } // if
+            } // if
+        } // for
+        return System.getenv(name);
+    } // get()
+
+
+    /**
+     * Split the system property and the environment variable of a given name into URL parts if possible.
+     *
+     * @param name base name of the values
+     * @return map of the URL parts by their suffixed names - parts from the environment win
+     */
+    private Map<String, String> splitUrls(String name) {
+        Map<String, String> result = new HashMap<>();
+        String property = System.getProperty(name);
+        if (property!=null) {
+            storeUrlParts(name, property, result);
+        } // if
+        String variable = System.getenv(name);
+        if (variable!=null) {
+            storeUrlParts(name, variable, result);
+        } // if
+        return result;
+    } // splitUrls()
+
+
+    /**
+     * Store URL parts of a given named value with suffixed names in a given map of config values.
+     *
+     * @param name base name of the parts
+     * @param value original value of the property
+     * @param values map to store split values in
+     */
+    private void storeUrlParts(String name, String value, Map<String, String> values) {
+        // split
+        int idx = value.indexOf("://");
+        if ((idx>0)&&(value.length()>idx+5)) {
+            // Might be a URL
+            try {
+                LOG.info("storeUrlParts() splitting {} ({})", value, name);
+                String protocol = value.substring(0, idx);
+                values.put(name+".protocol", protocol);
+                idx += 3;
+                String host = value.substring(idx);
+                String uri = "";
+                idx = host.indexOf('/');
+                if (idx>0) {
+                    uri = host.substring(idx+1);
+                    host = host.substring(0, idx);
+                } // if
+                if (Dinistiq.isNotBlank(uri)) {
+                    values.put(name+".uri", uri);
+                } // if
+                String username = "";
+                idx = host.indexOf('@');
+                if (idx>0) {
+                    username = host.substring(0, idx);
+                    host = host.substring(idx+1);
+                } // if
+                String[] userinfos = username.split(":");
+                if (userinfos.length>1) {
+                    username = userinfos[0];
+                    values.put(name+".password", userinfos[1]);
+                } // if
+                if (Dinistiq.isNotBlank(username)) {
+                    values.put(name+".username", username);
+                } // if
+
+                String port = "";
+                idx = host.indexOf(':');
+                if (idx>0) {
+                    port = host.substring(idx+1);
+                    host = host.substring(0, idx);
+                } // if
+                values.put(name+".host", host);
+                if (Dinistiq.isNotBlank(port)) {
+                    values.put(name+".port", port);
+                } // if
+            } catch (Exception e) {
+                LOG.error("storeUrlParts() error reading "+value+" as a url", e);
+            } // try/catch
+        } // if
+    } // storeUrlParts()
+
+} // SystemValues
@@ -0,0 +1,167 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+
+/**
+ * Configured value split once into literal text and references to named values.
+ *
+ * References are written as ${name} or ${name:default}. The default text is used when no value of that name is
+ * available, otherwise the reference is rendered as __UNKNOWN__. A literal ${ is written as $${. Incomplete
+ * references are kept as literal text.
+ */
+final class ValueTemplate {
+
+    /**
+     * Replacement text for references to unavailable values without a default.
+     */
+    static final String UNKNOWN = "__UNKNOWN__";
+
+    private static final String ESCAPE = "$${";
+
+    private static final String START = "${";
+
+    private final String text;
+
+    private final String[] literals;
+
+    private final String[] names;
+
+    private final String[] defaults;
+
+    private final int literalLength;
+
+
+    /**
+     * Create a template from its parsed parts.
+     *
+     * @param text original text of the template
+     * @param literals literal texts surrounding the references - one more than references
+     * @param names names of the referenced values
+     * @param defaults default texts of the references - null entries for references without default
+     */
+    private ValueTemplate(String text, List<String> literals, List<String> names, List<String> defaults) {
+        this.text = text;
+        this.literals = literals.toArray(new String[0]);
+        this.names = names.toArray(new String[0]);
+        this.defaults = defaults.toArray(new String[0]);
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        } // for
+        literalLength = length;
+    } // ValueTemplate()
+
+
+    /**
+     * Parse a configured value into a template.
+     *
+     * @param text configured value
+     * @return template for the value
+     */
+    static ValueTemplate compile(String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<String> defaults = new ArrayList<>();
+        StringBuilder literal = new StringBuilder(text.length());
+        int position = 0;
+        while (position<text.length()) {
+            int start = text.indexOf('$', position);
+            if (start<0) {
+                literal.append(text, position, text.length());
+                position = text.length();
+            } else {
+                literal.append(text, position, start);
+                int end = text.startsWith(START, start) ? text.indexOf('}', start+2) : -1;
+                int nested = (end<0) ? -1 : text.indexOf('{', start+2);
+                if (text.startsWith(ESCAPE, start)) {
+                    literal.append(START);
+                    position = start+ESCAPE.length();
+                } else if ((end<0)||((nested>=0)&&(nested<end))) {
+                    literal.append('$');
+                    position = start+1;
+                } else {
+                    String reference = text.substring(start+2, end);
+                    int colon = reference.indexOf(':');
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    names.add((colon<0) ? reference : reference.substring(0, colon));
+                    defaults.add((colon<0) ? null : reference.substring(colon+1));
+                    position = end+1;
+                } // if
+            } // if
+        } // while
+        literals.add(literal.toString());
+        return new ValueTemplate(text, literals, names, defaults);
+    } // compile()
+
+
+    /**
+     * Tell if the template consists of exactly one reference without any surrounding text.
+     *
+     * @return true if the template may resolve to the referenced object itself
+     */
+    boolean isReference() {
+        return (names.length==1)&&(literalLength==0);
+    } // isReference()
+
+
+    /**
+     * Resolve the template with the given lookup for named values.
+     *
+     * A template which only consists of a single reference resolves to the referenced object itself. Any other
+     * template resolves to a string.
+     *
+     * @param lookup function to look up named values - returning null for unavailable values
+     * @return resolved value
+     */
+    Object resolve(Function<String, Object> lookup) {
+        if (names.length==0) {
+            return literals[0];
+        } // if
+        if (isReference()) {
+            Object value = lookup.apply(names[0]);
+            if (value!=null) {
+                return value;
+            } // if
+        } // if
+        StringBuilder result = new StringBuilder(literalLength+16*names.length);
+        result.append(literals[0]);
+        for (int i = 0; i<names.length; i++) {
+            Object value = lookup.apply(names[i]);
+            result.append((value==null) ? ((defaults[i]==null) ? UNKNOWN : defaults[i]) : value);
+            result.append(literals[i+1]);
+        } // for
+        return result.toString();
+    } // resolve()
+
+
+    /**
+     * @return original text of the template
+     */
+    @Override
+    public String toString() {
+        return text;
+    } // toString()
+
+} // ValueTemplate
@@ -0,0 +1,443 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq.processor;
+
+import dinistiq.BeanFactory;
+import dinistiq.ClassInfo;
+import dinistiq.IndexedClassResolver;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+
+/**
+ * Annotation processor generating bean factories for classes using JSR-330 annotations.
+ *
+ * For each class annotated with at Singleton or at Named, or using at Inject for any of its members, a class
+ * implementing BeanFactory is generated, which calls the constructor used for injection without reflection.
+ * All generated factories are listed as services of the BeanFactory interface.
+ *
+ * Classes which cannot be instanciated from generated code in the same package - abstract, private, inner, local,
+ * or generic classes, and classes with a private or exception throwing injection constructor - are left out and
+ * will be instanciated reflectively.
+ *
+ * Additionally a class index for the IndexedClassResolver is written, describing all top level classes of the
+ * compilation with their runtime annotations and supertypes. The properties files from the dinistiq folders of the
+ * resource directories given with the option dinistiq.resources are listed in the index as well.
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(DinistiqProcessor.RESOURCES_OPTION)
+public class DinistiqProcessor extends AbstractProcessor {
+
+    /**
+     * Name of the option holding the resource directories to be indexed separated by the path separator.
+     */
+    public static final String RESOURCES_OPTION = "dinistiq.resources";
+
+    private static final Set<String> FACTORY_ANNOTATIONS = Set.of("jakarta.inject.Singleton", "jakarta.inject.Named", "jakarta.inject.Inject");
+
+    private static final String INJECT = "jakarta.inject.Inject";
+
+    private static final String REGISTRY = "META-INF/services/"+BeanFactory.class.getName();
+
+    private static final String RESOURCE_FOLDER = "dinistiq";
+
+    private final Set<String> handled = new HashSet<>();
+
+    private final SortedSet<String> factories = new TreeSet<>();
+
+    private final SortedMap<String, ClassInfo> classInfos = new TreeMap<>();
+
+
+    /**
+     * Support any source version since only annotations and constructors are looked at.
+     *
+     * @return latest supported source version
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    } // getSupportedSourceVersion()
+
+
+    /**
+     * Generate factories for all classes using any of the injection annotations and index all classes.
+     * The registry of all factories and the class index are written in the last round.
+     *
+     * @param annotations annotation types present in this round
+     * @param roundEnv environment of the round
+     * @return false - the annotations are not claimed
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            if (FACTORY_ANNOTATIONS.contains(annotation.getQualifiedName().toString())) {
+                for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                    TypeElement type = getType(element);
+                    if ((type!=null)&&handled.add(type.getQualifiedName().toString())) {
+                        generateFactory(type);
+                    } // if
+                } // for
+            } // if
+        } // for
+        for (Element element : roundEnv.getRootElements()) {
+            if (element.getKind().isClass()||element.getKind().isInterface()) {
+                addToIndex((TypeElement) element);
+            } // if
+        } // for
+        if (roundEnv.processingOver()) {
+            if (!factories.isEmpty()) {
+                writeRegistry();
+            } // if
+            writeIndex();
+        } // if
+        return false;
+    } // process()
+
+
+    /**
+     * Get the class an annotated element belongs to.
+     *
+     * @param element annotated class, member, or parameter
+     * @return class declaring the element or null if the element is no class or not declared by a class
+     */
+    private TypeElement getType(Element element) {
+        Element e = element;
+        while ((e!=null)&&!e.getKind().isClass()&&!e.getKind().isInterface()) {
+            e = e.getEnclosingElement();
+        } // while
+        return ((e!=null)&&(e.getKind()==ElementKind.CLASS)) ? (TypeElement) e : null;
+    } // getType()
+
+
+    /**
+     * Find the constructor dinistiq will use for a given class.
+     *
+     * @param type class to find the constructor of
+     * @return constructor annotated for injection or the public default constructor - null if neither is available
+     */
+    private ExecutableElement getInjectionConstructor(TypeElement type) {
+        ExecutableElement result = null;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (isAnnotated(constructor, INJECT)) {
+                result = constructor;
+            } // if
+        } // for
+        if (result==null) {
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+                if (constructor.getParameters().isEmpty()&&constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                    result = constructor;
+                } // if
+            } // for
+        } // if
+        return result;
+    } // getInjectionConstructor()
+
+
+    /**
+     * Check if an element is annotated with an annotation of the given name.
+     *
+     * @param element element to check
+     * @param annotationName qualified name of the annotation type
+     * @return true if the annotation is present
+     */
+    private boolean isAnnotated(Element element, String annotationName) {
+        return element.getAnnotationMirrors().stream()
+                .anyMatch(a -> ((TypeElement) a.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName));
+    } // isAnnotated()
+
+
+    /**
+     * Tell why no factory can be generated for a given class.
+     *
+     * @param type class to check
+     * @param constructor constructor used for injection - may be null
+     * @return reason or null if a factory can be generated
+     */
+    private String getProblem(TypeElement type, ExecutableElement constructor) {
+        Set<Modifier> modifiers = type.getModifiers();
+        if (modifiers.contains(Modifier.ABSTRACT)) {
+            return "abstract class";
+        } // if
+        if (!type.getTypeParameters().isEmpty()) {
+            return "generic class";
+        } // if
+        for (Element e = type; e.getKind().isClass(); e = e.getEnclosingElement()) {
+            TypeElement t = (TypeElement) e;
+            if (t.getModifiers().contains(Modifier.PRIVATE)) {
+                return "private class";
+            } // if
+            if ((t.getNestingKind()==NestingKind.LOCAL)||(t.getNestingKind()==NestingKind.ANONYMOUS)) {
+                return "local class";
+            } // if
+            if ((t.getNestingKind()==NestingKind.MEMBER)&&!t.getModifiers().contains(Modifier.STATIC)) {
+                return "inner class";
+            } // if
+        } // for
+        if (constructor==null) {
+            return "no constructor for injection";
+        } // if
+        if (constructor.getModifiers().contains(Modifier.PRIVATE)) {
+            return "private constructor";
+        } // if
+        if (!constructor.getThrownTypes().isEmpty()) {
+            return "constructor declaring exceptions";
+        } // if
+        return null;
+    } // getProblem()
+
+
+    /**
+     * Get the type name to cast a parameter value to.
+     *
+     * @param type declared type of the parameter
+     * @return erased type name with primitives replaced by their wrapper types
+     */
+    private String getCastType(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) erased).getQualifiedName().toString();
+        } // if
+        return erased.toString();
+    } // getCastType()
+
+
+    /**
+     * Generate the factory source for a given class.
+     *
+     * @param type class to generate the factory for
+     */
+    private void generateFactory(TypeElement type) {
+        ExecutableElement constructor = getInjectionConstructor(type);
+        String problem = getProblem(type, constructor);
+        if (problem!=null) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "no dinistiq factory generated: "+problem, type);
+            return;
+        } // if
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String factoryName = BeanFactory.getFactoryName(processingEnv.getElementUtils().getBinaryName(type).toString());
+        String simpleName = packageName.isEmpty() ? factoryName : factoryName.substring(packageName.length()+1);
+        String typeName = type.getQualifiedName().toString();
+        StringBuilder arguments = new StringBuilder(64);
+        List<? extends VariableElement> parameters = constructor.getParameters();
+        for (int i = 0; i<parameters.size(); i++) {
+            arguments.append(i==0 ? "" : ", ").append('(').append(getCastType(parameters.get(i).asType())).append(") parameters[").append(i).append(']');
+        } // for
+        try (Writer writer = processingEnv.getFiler().createSourceFile(factoryName, type).openWriter(); PrintWriter out = new PrintWriter(writer)) {
+            if (!packageName.isEmpty()) {
+                out.println("package "+packageName+";");
+                out.println();
+            } // if
+            out.println("/**");
+            out.println(" * Generated dinistiq bean factory for "+typeName+".");
+            out.println(" */");
+            out.println("@javax.annotation.processing.Generated(\""+getClass().getName()+"\")");
+            out.println("public final class "+simpleName+" implements "+BeanFactory.class.getName()+"<"+typeName+"> {");
+            out.println();
+            out.println("    @Override");
+            out.println("    public Class<"+typeName+"> getType() {");
+            out.println("        return "+typeName+".class;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    @SuppressWarnings(\"unchecked\")");
+            out.println("    public "+typeName+" create(Object[] parameters) {");
+            out.println("        return new "+typeName+"("+arguments+");");
+            out.println("    }");
+            out.println();
+            out.println("}");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "cannot write dinistiq factory "+factoryName+": "+e.getMessage(), type);
+            return;
+        } // try/catch
+        factories.add(factoryName);
+    } // generateFactory()
+
+
+    /**
+     * Get the binary name of a type.
+     *
+     * @param type type to get the name of
+     * @return binary name as used at runtime
+     */
+    private String getBinaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    } // getBinaryName()
+
+
+    /**
+     * Get the runtime modifiers of a type.
+     *
+     * @param type type to get the modifiers of
+     * @return modifiers as defined in java.lang.reflect.Modifier
+     */
+    private int getModifiers(TypeElement type) {
+        int result = 0;
+        Set<Modifier> modifiers = type.getModifiers();
+        result |= modifiers.contains(Modifier.PUBLIC) ? java.lang.reflect.Modifier.PUBLIC : 0;
+        result |= modifiers.contains(Modifier.FINAL) ? java.lang.reflect.Modifier.FINAL : 0;
+        result |= modifiers.contains(Modifier.ABSTRACT) ? java.lang.reflect.Modifier.ABSTRACT : 0;
+        if (type.getKind().isInterface()) {
+            result |= java.lang.reflect.Modifier.INTERFACE|java.lang.reflect.Modifier.ABSTRACT;
+        } // if
+        return result;
+    } // getModifiers()
+
+
+    /**
+     * Add the names of all direct and indirect supertypes of a type to a set of names.
+     *
+     * @param type type to collect the supertypes of
+     * @param result set of names to add the supertypes to
+     */
+    private void addSupertypes(TypeMirror type, Set<String> result) {
+        for (TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(type)) {
+            Element element = processingEnv.getTypeUtils().asElement(supertype);
+            if ((element instanceof TypeElement)&&result.add(getBinaryName((TypeElement) element))) {
+                addSupertypes(supertype, result);
+            } // if
+        } // for
+    } // addSupertypes()
+
+
+    /**
+     * Describe a top level type in the class index.
+     * Generated factories are left out.
+     *
+     * @param type type to add
+     */
+    private void addToIndex(TypeElement type) {
+        String name = getBinaryName(type);
+        if (!name.endsWith(BeanFactory.SUFFIX)) {
+            Set<String> annotations = new TreeSet<>();
+            for (AnnotationMirror annotation : processingEnv.getElementUtils().getAllAnnotationMirrors(type)) {
+                TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+                Retention retention = annotationType.getAnnotation(Retention.class);
+                if ((retention!=null)&&(retention.value()==RetentionPolicy.RUNTIME)) {
+                    annotations.add(getBinaryName(annotationType));
+                } // if
+            } // for
+            Set<String> supertypes = new TreeSet<>();
+            addSupertypes(type.asType(), supertypes);
+            classInfos.put(name, new ClassInfo(name, getModifiers(type), annotations, supertypes));
+        } // if
+    } // addToIndex()
+
+
+    /**
+     * Collect the properties files from the dinistiq folders of the resource directories given as option.
+     *
+     * @return set of resource paths
+     */
+    private SortedSet<String> getPropertiesResources() {
+        SortedSet<String> result = new TreeSet<>();
+        String directories = processingEnv.getOptions().get(RESOURCES_OPTION);
+        if (directories!=null) {
+            for (String directory : directories.split(File.pathSeparator)) {
+                Path base = Paths.get(directory);
+                Path folder = base.resolve(RESOURCE_FOLDER);
+                if (Files.isDirectory(folder)) {
+                    try (Stream<Path> files = Files.walk(folder)) {
+                        files.filter(f -> f.getFileName().toString().endsWith(".properties"))
+                                .forEach(f -> result.add(base.relativize(f).toString().replace(File.separatorChar, '/')));
+                    } catch (IOException e) {
+                        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "cannot index resources in "+folder+": "+e.getMessage());
+                    } // try/catch
+                } // if
+            } // for
+        } // if
+        return result;
+    } // getPropertiesResources()
+
+
+    /**
+     * Write the class index for the IndexedClassResolver.
+     */
+    private void writeIndex() {
+        SortedSet<String> resources = getPropertiesResources();
+        if (classInfos.isEmpty()&&resources.isEmpty()) {
+            return;
+        } // if
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", IndexedClassResolver.INDEX);
+            try (Writer writer = index.openWriter(); PrintWriter out = new PrintWriter(writer)) {
+                out.println("# dinistiq class index");
+                for (ClassInfo info : classInfos.values()) {
+                    out.println(IndexedClassResolver.CLASS_PREFIX+info.format());
+                } // for
+                for (String resource : resources) {
+                    out.println(IndexedClassResolver.RESOURCE_PREFIX+resource);
+                } // for
+            } // try
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "cannot write dinistiq class index: "+e.getMessage());
+        } // try/catch
+    } // writeIndex()
+
+
+    /**
+     * Write the service registry listing all generated factories.
+     */
+    private void writeRegistry() {
+        try {
+            FileObject registry = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", REGISTRY);
+            try (Writer writer = registry.openWriter(); PrintWriter out = new PrintWriter(writer)) {
+                for (String factory : factories) {
+                    out.println(factory);
+                } // for
+            } // try
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "cannot write dinistiq factory registry: "+e.getMessage());
+        } // try/catch
+    } // writeRegistry()
+
+} // DinistiqProcessor
@@ -20,7 +20,10 @@ package dinistiq.web;
 
 import dinistiq.ClassResolver;
 import dinistiq.Dinistiq;
+import dinistiq.ScanFilter;
 import dinistiq.SimpleClassResolver;
+import java.io.File;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -65,6 +68,136 @@ public class DinistiqContextLoaderListener implements ServletContextListener {
      */
     public static final String DINISTIQ_CLASSRESOLVER = "dinistiq.class.resolver";
 
+    /**
+     * Init parameter name for the parameter holding the path of a file to cache class path scan results in.
+     */
+    public static final String DINISTIQ_SCANCACHE = "dinistiq.scan.cache";
+
+    /**
+     * Init parameter name for the whitespace separated patterns of classes to consider.
+     */
+    public static final String DINISTIQ_INCLUDE_CLASSES = "dinistiq.scan.include.classes";
+
+    /**
+     * Init parameter name for the whitespace separated patterns of classes to ignore.
+     */
+    public static final String DINISTIQ_EXCLUDE_CLASSES = "dinistiq.scan.exclude.classes";
+
+    /**
+     * Init parameter name for the whitespace separated patterns of properties files to consider.
+     */
+    public static final String DINISTIQ_INCLUDE_RESOURCES = "dinistiq.scan.include.resources";
+
+    /**
+     * Init parameter name for the whitespace separated patterns of properties files to ignore.
+     */
+    public static final String DINISTIQ_EXCLUDE_RESOURCES = "dinistiq.scan.exclude.resources";
+
+    /**
+     * Init parameter name for the whitespace separated patterns of JAR files to scan.
+     */
+    public static final String DINISTIQ_INCLUDE_JARS = "dinistiq.scan.include.jars";
+
+    /**
+     * Init parameter name for the whitespace separated patterns of JAR files to skip.
+     */
+    public static final String DINISTIQ_EXCLUDE_JARS = "dinistiq.scan.exclude.jars";
+
+
+    /**
+     * Get the patterns from an init parameter.
+     *
+     * Patterns are separated by whitespace including line breaks, since commas may be part of regular expressions.
+     *
+     * @param context servlet context to take the init parameter from
+     * @param name name of the init parameter
+     * @return patterns - empty if the parameter is not set
+     */
+    private String[] getPatterns(ServletContext context, String name) {
+        String value = context.getInitParameter(name);
+        return Dinistiq.isNotBlank(value) ? value.trim().split("\\s+") : new String[0];
+    } // getPatterns()
+
+
+    /**
+     * Create a scan filter from the init parameters.
+     *
+     * @param context servlet context to take the init parameters from
+     * @return scan filter or null if no patterns are given at all
+     */
+    private ScanFilter getScanFilter(ServletContext context) {
+        ScanFilter filter = new ScanFilter()
+                .includeClasses(getPatterns(context, DINISTIQ_INCLUDE_CLASSES))
+                .excludeClasses(getPatterns(context, DINISTIQ_EXCLUDE_CLASSES))
+                .includeResources(getPatterns(context, DINISTIQ_INCLUDE_RESOURCES))
+                .excludeResources(getPatterns(context, DINISTIQ_EXCLUDE_RESOURCES))
+                .includeJars(getPatterns(context, DINISTIQ_INCLUDE_JARS))
+                .excludeJars(getPatterns(context, DINISTIQ_EXCLUDE_JARS));
+        return filter.toString().isEmpty() ? null : filter;
+    } // getScanFilter()
+
+
+    /**
+     * Get a public constructor of a class.
+     *
+     * @param cls class to get the constructor of
+     * @param parameterTypes parameter types of the constructor
+     * @return constructor or null if the class has no such public constructor
+     */
+    private Constructor<?> getConstructor(Class<?> cls, Class<?>... parameterTypes) {
+        try {
+            return cls.getConstructor(parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } // try/catch
+    } // getConstructor()
+
+
+    /**
+     * Create a custom class resolver.
+     *
+     * The richest constructor the resolver offers for the given scan cache and scan filter is used. Resolvers without
+     * such a constructor are created with the set of packages only and the scan cache and filter are ignored.
+     *
+     * @param classResolverName name of the class resolver implementation
+     * @param packages set of package names to resolve classes from
+     * @param scanCache optional scan cache file - may be null
+     * @param scanFilter optional scan filter - may be null
+     * @return class resolver or null if the class resolver cannot be created
+     */
+    private ClassResolver createClassResolver(String classResolverName, Set<String> packages, File scanCache, ScanFilter scanFilter) {
+        try {
+            Class<?> forName = Class.forName(classResolverName);
+            if (scanFilter!=null) {
+                Constructor<?> constructor = getConstructor(forName, Set.class, File.class, ScanFilter.class);
+                if (constructor!=null) {
+                    return (ClassResolver) constructor.newInstance(packages, scanCache, scanFilter);
+                } // if
+                LOG.warn("createClassResolver() {} doesn't support scan filters - ignoring {}", classResolverName, scanFilter);
+            } // if
+            if (scanCache!=null) {
+                Constructor<?> constructor = getConstructor(forName, Set.class, File.class);
+                if (constructor!=null) {
+                    return (ClassResolver) constructor.newInstance(packages, scanCache);
+                } // if
+                LOG.warn("createClassResolver() {} doesn't support scan caches - ignoring {}", classResolverName, scanCache);
+            } // if
+            Constructor<?> constructor = getConstructor(forName, Set.class);
+            if (constructor==null) {
+                Constructor<?>[] constructors = forName.getConstructors();
+                if (constructors.length==0) {
+                    LOG.error("createClassResolver() {} has no public constructor", classResolverName);
+                    return null;
+                } // if
+                constructor = constructors[0];
+            } // if
+            return (ClassResolver) constructor.newInstance(packages);
+        } catch (ClassNotFoundException|InstantiationException|IllegalAccessException|InvocationTargetException|ClassCastException|IllegalArgumentException e) {
+            LOG.error("createClassResolver() cannot obtain custom class resolver "+classResolverName, e);
+            return null;
+        } // try/catch
+    } // createClassResolver()
+
 
     /**
      * Web related dinistiq initialization with parameters taken from the web.xml.
@@ -87,26 +220,19 @@ public class DinistiqContextLoaderListener implements ServletContextListener {
                 packages.add(packageName.trim());
             } // for
         } // if
+        String scanCacheName = context.getInitParameter(DINISTIQ_SCANCACHE);
+        File scanCache = Dinistiq.isNotBlank(scanCacheName) ? new File(scanCacheName.trim()) : null;
+        ScanFilter scanFilter = getScanFilter(context);
         String classResolverName = context.getInitParameter(DINISTIQ_CLASSRESOLVER);
-        ClassResolver classResolver = null;
-        if (Dinistiq.isNotBlank(classResolverName)) {
-            try {
-                Class<?> forName = Class.forName(classResolverName);
-                Object[] args = new Object[1];
-                args[0] = packages;
-                classResolver = (ClassResolver) forName.getConstructors()[0].newInstance(args);
-            } catch (ClassNotFoundException|InstantiationException|IllegalAccessException|InvocationTargetException e) {
-                LOG.error("contextInitialized() cannot obtain custom class resolver", e);
-            } // try/catch
-        } // if
+        ClassResolver classResolver = Dinistiq.isNotBlank(classResolverName) ? createClassResolver(classResolverName.trim(), packages, scanCache, scanFilter) : null;
         LOG.info("contextInitialized() classResolver: {} :{}", classResolver, classResolverName);
-        classResolver = (classResolver==null) ? new SimpleClassResolver(packages) : classResolver;
+        classResolver = (classResolver==null) ? new SimpleClassResolver(packages, scanCache, scanFilter) : classResolver;
         try {
             Map<String, Object> externalBeans = new HashMap<>();
             externalBeans.put("servletContext", context);
             Dinistiq dinistiq = new Dinistiq(classResolver, externalBeans);
             context.setAttribute(DINISTIQ_INSTANCE, dinistiq);
-            for (String name : dinistiq.getAllBeanNames()) {
+            for (String name : dinistiq.getComponentNames()) {
                 context.setAttribute(name, dinistiq.findBean(Object.class, name));
             } // for
             Collection<RegisterableServlet> servlets = dinistiq.findBeans(RegisterableServlet.class);
@@ -0,0 +1,82 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq;
+
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ * Test sorting of the package private dependency graph and the detection of cycles preventing a sort.
+ */
+public class DependencyGraphTest {
+
+    /**
+     * Test if a cycle is found next to a dependency on a blocked node.
+     */
+    @Test
+    public void testCycleNextToBlockedNode() {
+        DependencyGraph graph = new DependencyGraph(4);
+        graph.addDependency(0, 1);
+        graph.addDependency(0, 2);
+        graph.addDependency(1, 3);
+        graph.addDependency(2, 0);
+        graph.block(3);
+        List<Integer> order = graph.sort();
+        Assert.assertEquals(order, List.of(), "No node should be sortable.");
+        Assert.assertEquals(graph.findCycles(order), List.of(List.of(0, 2)), "Cycle should have been found.");
+    } // testCycleNextToBlockedNode()
+
+
+    /**
+     * Test if all members of intertwined cycles and cycles through blocked nodes are reported.
+     */
+    @Test
+    public void testIntertwinedCycles() {
+        DependencyGraph graph = new DependencyGraph(7);
+        graph.addDependency(0, 1);
+        graph.addDependency(1, 0);
+        graph.addDependency(1, 2);
+        graph.addDependency(2, 1);
+        graph.addDependency(3, 4);
+        graph.addDependency(4, 3);
+        graph.addDependency(5, 5);
+        graph.addDependency(6, 0);
+        graph.block(4);
+        List<Integer> order = graph.sort();
+        Assert.assertEquals(order, List.of(), "No node should be sortable.");
+        List<List<Integer>> cycles = graph.findCycles(order);
+        Assert.assertEquals(cycles, List.of(List.of(0, 1, 2, 1), List.of(3, 4), List.of(5)), "Unexpected cycles.");
+    } // testIntertwinedCycles()
+
+
+    /**
+     * Test if independent nodes keep their order and nothing is reported for a complete sort.
+     */
+    @Test
+    public void testSort() {
+        DependencyGraph graph = new DependencyGraph(3);
+        graph.addDependency(0, 2);
+        List<Integer> order = graph.sort();
+        Assert.assertEquals(order, List.of(1, 2, 0), "Unexpected order.");
+        Assert.assertEquals(graph.findCycles(order), List.of(), "No cycles expected.");
+    } // testSort()
+
+} // DependencyGraphTest
@@ -18,12 +18,28 @@
  */
 package dinistiq.test;
 
+import dinistiq.ClassInfo;
 import dinistiq.ClassResolver;
+import dinistiq.ScanFilter;
 import dinistiq.SimpleClassResolver;
+import dinistiq.test.components.StaticInitializerComponent;
 import dinistiq.test.components.TestInterface;
+import java.io.File;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import jakarta.inject.Scope;
 import jakarta.inject.Singleton;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -46,8 +62,171 @@ public class ClassResolverTest {
         ClassResolver resolver = new SimpleClassResolver(packages);
         Set<Class<TestInterface>> subclasses = resolver.getSubclasses(TestInterface.class);
         Assert.assertEquals(subclasses.size(), 2, "Cannot find expected number of implementing classes");
+        Assert.assertSame(resolver.getSubclasses(TestInterface.class), subclasses, "Query result not reused");
+        Assert.assertThrows(UnsupportedOperationException.class, () -> subclasses.clear());
         Set<Class<TestInterface>> annotatedSubclasses = resolver.getAnnotatedSubclasses(TestInterface.class, Singleton.class);
         Assert.assertEquals(annotatedSubclasses.size(), 3, "Cannot find expected number of implementing classes annotated as singleton");
     } // testClassLoader()
 
+
+    /**
+     * Test that resolving classes doesn't initialize them.
+     */
+    @Test
+    public void testNoInitialization() {
+        Set<String> packages = new HashSet<>();
+        packages.add(TestInterface.class.getPackage().getName());
+        ClassResolver resolver = new SimpleClassResolver(packages);
+        Set<Class<Object>> classes = resolver.getSubclasses(Object.class);
+        Assert.assertTrue(classes.stream().anyMatch(c -> c.getName().equals(StaticInitializerComponent.class.getName())), "Test class not resolved.");
+        Assert.assertNull(System.getProperty(StaticInitializerComponent.INITIALIZED), "Resolved class was initialized.");
+    } // testNoInitialization()
+
+
+    /**
+     * Test that classes not matching a query are rejected from their class files without being loaded.
+     *
+     * @throws Exception in case of file handling or class loading problems
+     */
+    @Test
+    public void testPreFilter() throws Exception {
+        Path root = Files.createTempDirectory("dinistiq-prefilter");
+        Path sources = Files.createDirectories(root.resolve("prefiltered"));
+        Files.writeString(sources.resolve("Marked.java"), "package prefiltered;\n@jakarta.inject.Singleton\npublic class Marked {\n    private int value;\n    public int getValue() {\n        return value;\n    }\n}\n", StandardCharsets.UTF_8);
+        Files.writeString(sources.resolve("Unmarked.java"), "package prefiltered;\npublic class Unmarked {\n    private int value;\n    public int getValue() {\n        return value;\n    }\n}\n", StandardCharsets.UTF_8);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int result = compiler.run(null, null, null, "-proc:none", "-d", root.toString(), "-classpath", System.getProperty("java.class.path"), sources.resolve("Marked.java").toString(), sources.resolve("Unmarked.java").toString());
+        Assert.assertEquals(result, 0, "Compilation of test classes failed.");
+
+        Set<String> loaded = ConcurrentHashMap.newKeySet();
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{root.toUri().toURL()}, getClass().getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                loaded.add(name);
+                return super.loadClass(name, resolve);
+            } // loadClass()
+        }) {
+            thread.setContextClassLoader(classLoader);
+            ClassResolver resolver = new SimpleClassResolver(Set.of("prefiltered"));
+            Set<String> annotated = resolver.getAnnotated(Singleton.class).stream().map(Class::getName).filter(n -> n.startsWith("prefiltered.")).collect(Collectors.toSet());
+            Assert.assertEquals(annotated, Set.of("prefiltered.Marked"), "Unexpected annotated classes.");
+            Assert.assertTrue(loaded.contains("prefiltered.Marked"), "Matching class not loaded.");
+            Assert.assertFalse(loaded.contains("prefiltered.Unmarked"), "Non matching class loaded.");
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        } // try/finally
+    } // testPreFilter()
+
+
+    /**
+     * Test resolving classes with a scan cache file.
+     *
+     * @throws Exception in case of file handling problems
+     */
+    @Test
+    public void testScanCache() throws Exception {
+        Set<String> packages = new HashSet<>();
+        packages.add(TestInterface.class.getPackage().getName());
+        packages.add("jakarta");
+        File cacheFile = File.createTempFile("dinistiq-scan", ".cache");
+        Assert.assertTrue(cacheFile.delete(), "Cannot prepare cache file.");
+        ClassResolver resolver = new SimpleClassResolver(packages, cacheFile);
+        Assert.assertTrue(cacheFile.isFile(), "Scan cache not written.");
+        long cacheSize = cacheFile.length();
+        ClassResolver cachedResolver = new SimpleClassResolver(packages, cacheFile);
+        Assert.assertEquals(cacheFile.length(), cacheSize, "Unchanged scan cache written again.");
+        Assert.assertEquals(cachedResolver.getAnnotatedItems(Singleton.class), resolver.getAnnotatedItems(Singleton.class), "Different annotated classes with cache.");
+        Assert.assertEquals(cachedResolver.getAnnotatedSubclasses(TestInterface.class, Singleton.class).size(), 3, "Cannot find expected number of implementing classes annotated as singleton");
+        Assert.assertEquals(cachedResolver.getProperties("dinistiq/"), resolver.getProperties("dinistiq/"), "Different properties files with cache.");
+
+        Files.writeString(cacheFile.toPath(), "garbage", StandardCharsets.UTF_8);
+        ClassResolver recoveredResolver = new SimpleClassResolver(packages, cacheFile);
+        Assert.assertEquals(recoveredResolver.getAnnotatedItems(Singleton.class), resolver.getAnnotatedItems(Singleton.class), "Broken cache not ignored.");
+        cacheFile.delete();
+    } // testScanCache()
+
+
+    /**
+     * Test filtering class metadata before loading classes.
+     */
+    @Test
+    public void testClassInfos() {
+        Set<String> packages = new HashSet<>();
+        packages.add(TestInterface.class.getPackage().getName());
+        ClassResolver resolver = new SimpleClassResolver(packages);
+        Set<Class<Object>> annotated = resolver.getClassInfos()
+                .filter(info -> !info.isInterface()&&!info.isAbstract()&&info.isAnnotated(Singleton.class.getName()))
+                .map(info -> info.<Object>load())
+                .collect(Collectors.toSet());
+        Assert.assertEquals(annotated, resolver.getAnnotated(Singleton.class), "Unexpected annotated classes from metadata.");
+        Set<String> implementations = resolver.getClassInfos()
+                .filter(info -> !info.isInterface()&&!info.isAbstract()&&info.isSubtypeOf(TestInterface.class.getName()))
+                .map(ClassInfo::getName)
+                .collect(Collectors.toSet());
+        Set<String> subclasses = resolver.getSubclasses(TestInterface.class).stream().map(Class::getName).collect(Collectors.toSet());
+        Assert.assertEquals(implementations, subclasses, "Unexpected implementations from metadata.");
+        ClassInfo info = resolver.getClassInfos().filter(i -> i.getName().equals(StaticInitializerComponent.class.getName())).findFirst().get();
+        Assert.assertTrue(info.isSubtypeOf(Object.class.getName()), "Object missing from supertypes.");
+
+        ClassResolver custom = new ClassResolver() {
+            @Override
+            public <T extends Object> Set<Class<T>> getSubclasses(Class<T> type) {
+                return resolver.getSubclasses(type);
+            } // getSubclasses()
+
+
+            @Override
+            public <T extends Object> Set<Class<T>> getAnnotated(Class<? extends Annotation> annotation) {
+                return resolver.getAnnotated(annotation);
+            } // getAnnotated()
+
+
+            @Override
+            public <T extends Object> Set<Class<T>> getAnnotatedItems(Class<? extends Annotation> annotation) {
+                return resolver.getAnnotatedItems(annotation);
+            } // getAnnotatedItems()
+
+
+            @Override
+            public <T extends Object> Set<Class<T>> getAnnotatedSubclasses(Class<T> c, Class<? extends Annotation> annotation) {
+                return resolver.getAnnotatedSubclasses(c, annotation);
+            } // getAnnotatedSubclasses()
+
+
+            @Override
+            public SortedSet<String> getProperties(String path) {
+                return resolver.getProperties(path);
+            } // getProperties()
+
+        };
+        Set<String> derived = custom.getClassInfos().filter(i -> i.isAnnotated(Singleton.class.getName())).map(ClassInfo::getName).collect(Collectors.toSet());
+        Set<String> expected = resolver.getAnnotated(Singleton.class).stream().map(Class::getName).collect(Collectors.toSet());
+        Assert.assertEquals(derived, expected, "Unexpected class metadata from default implementation.");
+    } // testClassInfos()
+
+
+    /**
+     * Test restricting the scanned classes, properties files, and JAR files.
+     */
+    @Test
+    public void testScanFilter() {
+        Set<String> packages = new HashSet<>();
+        packages.add(TestInterface.class.getPackage().getName());
+        packages.add("jakarta");
+        ScanFilter filter = new ScanFilter()
+                .excludeClasses("dinistiq.test.components.Qualified*")
+                .includeResources("dinistiq/beans/*.properties")
+                .excludeJars("jakarta.inject-api-*.jar");
+        ClassResolver resolver = new SimpleClassResolver(packages, null, filter);
+        Set<String> subclasses = resolver.getSubclasses(TestInterface.class).stream().map(Class::getName).collect(Collectors.toSet());
+        Assert.assertEquals(subclasses, Set.of("dinistiq.test.components.TestComponent"), "Excluded classes found.");
+        Assert.assertTrue(resolver.getAnnotatedItems(Scope.class).isEmpty(), "Classes from excluded JAR file found.");
+        Assert.assertFalse(resolver.getProperties("dinistiq/").isEmpty(), "Included properties files missing.");
+        for (String path : resolver.getProperties("dinistiq/")) {
+            Assert.assertTrue(path.startsWith("dinistiq/beans/"), "Properties file "+path+" not filtered.");
+        } // for
+    } // testScanFilter()
+
 } // ClassResolverTest
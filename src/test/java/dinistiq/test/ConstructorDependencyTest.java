@@ -0,0 +1,215 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq.test;
+
+import dinistiq.ClassResolver;
+import dinistiq.Dinistiq;
+import jakarta.inject.Inject;
+import java.lang.annotation.Annotation;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import lombok.Getter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ * Test the order of bean creation derived from constructor injections.
+ *
+ * The bean classes are not annotated, so they are only used through the class resolver given here and don't show up in
+ * the scans of the other tests.
+ */
+public class ConstructorDependencyTest {
+
+    /**
+     * Type with several implementations.
+     */
+    public interface Service {
+
+    } // Service
+
+
+    /**
+     * Plain implementation of the service.
+     */
+    public static class RealService implements Service {
+
+    } // RealService
+
+
+    /**
+     * Decorator of the service taking another implementation of its own type.
+     */
+    public static class Wrapper implements Service {
+
+        @Getter
+        private final Service inner;
+
+
+        /**
+         * Create a decorator for the given service.
+         *
+         * @param inner service to decorate
+         */
+        @Inject
+        public Wrapper(Service inner) {
+            this.inner = inner;
+        }
+
+    } // Wrapper
+
+
+    /**
+     * Implementation of the service which cannot be created due to a missing dependency.
+     */
+    public static class BrokenService implements Service {
+
+        /**
+         * Create a service depending on a bean which is not available.
+         *
+         * @param missing bean not available in the scope
+         */
+        @Inject
+        public BrokenService(ConstructorDependencyTest missing) {
+        }
+
+    } // BrokenService
+
+
+    /**
+     * Implementation of the service which cannot be created due to a cycle of constructor dependencies.
+     */
+    public static class CyclicService implements Service {
+
+        /**
+         * Create a service depending on a bean which depends on this one.
+         *
+         * @param partner bean depending on this one
+         */
+        @Inject
+        public CyclicService(CyclicPartner partner) {
+        }
+
+    } // CyclicService
+
+
+    /**
+     * Partner in a cycle of constructor dependencies.
+     */
+    public static class CyclicPartner {
+
+        /**
+         * Create a bean depending on a bean which depends on this one.
+         *
+         * @param service bean depending on this one
+         */
+        @Inject
+        public CyclicPartner(CyclicService service) {
+        }
+
+    } // CyclicPartner
+
+
+    /**
+     * Class resolver only returning a fixed set of classes as annotated bean classes and no properties at all.
+     */
+    private static class FixedClassResolver implements ClassResolver {
+
+        private final List<Class<?>> classes;
+
+
+        /**
+         * Create a resolver for the given classes.
+         *
+         * @param classes classes to return as bean classes
+         */
+        FixedClassResolver(Class<?>... classes) {
+            this.classes = List.of(classes);
+        }
+
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends Object> Set<Class<T>> getSubclasses(Class<T> type) {
+            Set<Class<T>> result = new HashSet<>();
+            for (Class<?> c : classes) {
+                if (type.isAssignableFrom(c)) {
+                    result.add((Class<T>) c);
+                } // if
+            } // for
+            return result;
+        } // getSubclasses()
+
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends Object> Set<Class<T>> getAnnotated(Class<? extends Annotation> annotation) {
+            return (Set<Class<T>>) (Set<?>) getSubclasses(Object.class);
+        } // getAnnotated()
+
+
+        @Override
+        public <T extends Object> Set<Class<T>> getAnnotatedItems(Class<? extends Annotation> annotation) {
+            return new HashSet<>();
+        } // getAnnotatedItems()
+
+
+        @Override
+        public <T extends Object> Set<Class<T>> getAnnotatedSubclasses(Class<T> c, Class<? extends Annotation> annotation) {
+            return getSubclasses(c);
+        } // getAnnotatedSubclasses()
+
+
+        @Override
+        public SortedSet<String> getProperties(String path) {
+            return new TreeSet<>();
+        } // getProperties()
+
+    } // FixedClassResolver
+
+
+    /**
+     * Test if a decorator taking an instance of its own type gets the other implementation injected.
+     */
+    @Test
+    public void testDecorator() {
+        Dinistiq d = new Dinistiq(new FixedClassResolver(RealService.class, Wrapper.class), null);
+        Wrapper wrapper = d.findBean(Wrapper.class);
+        Assert.assertNotNull(wrapper, "Decorator should have been created.");
+        Assert.assertTrue(wrapper.getInner() instanceof RealService, "Decorated service should have been injected.");
+    } // testDecorator()
+
+
+    /**
+     * Test if alternative implementations which cannot be created don't keep a bean from being created.
+     */
+    @Test
+    public void testUnavailableAlternatives() {
+        Dinistiq d = new Dinistiq(new FixedClassResolver(BrokenService.class, CyclicService.class, CyclicPartner.class, RealService.class, Wrapper.class), null);
+        Wrapper wrapper = d.findBean(Wrapper.class);
+        Assert.assertNotNull(wrapper, "Decorator should have been created.");
+        Assert.assertTrue(wrapper.getInner() instanceof RealService, "Available service should have been injected.");
+        Assert.assertNull(d.findBean(BrokenService.class), "Service with missing dependency should not have been created.");
+        Assert.assertNull(d.findBean(CyclicService.class), "Service with circular dependency should not have been created.");
+    } // testUnavailableAlternatives()
+
+} // ConstructorDependencyTest
@@ -19,6 +19,8 @@
 package dinistiq.test;
 
 import dinistiq.Dinistiq;
+import dinistiq.test.components.CircularBeanA;
+import dinistiq.test.components.CircularBeanB;
 import dinistiq.test.components.InitialBean;
 import dinistiq.test.components.InjectionFailure;
 import dinistiq.test.components.ManualBean;
@@ -112,4 +114,49 @@ public class ErrorConditionTest {
         Assert.assertNull(failure, "Should not have been able to create instance.");
     } // testFailures()
 
+
+    /**
+     * Test if circular dependencies are detected and reported with the beans involved.
+     */
+    @Test
+    public void testCircularDependencies() {
+        Set<String> packages = new HashSet<>();
+        packages.add(TestInterface.class.getPackage().getName());
+        packages.add(Car.class.getPackage().getName());
+        Map<String, Object> initialBeans = prepareInitialBeans();
+        initialBeans.put("circularBeanA", new CircularBeanA());
+        initialBeans.put("circularBeanB", new CircularBeanB());
+        String message = null;
+        try {
+            new Dinistiq(packages, initialBeans);
+        } catch (RuntimeException e) {
+            message = e.getMessage();
+        } // try/catch
+        Assert.assertNotNull(message, "Circular dependency should have been detected.");
+        Assert.assertTrue(message.contains("circularBeanA -> circularBeanB")||message.contains("circularBeanB -> circularBeanA"), "Cycle members should be reported.");
+    } // testCircularDependencies()
+
+
+    /**
+     * Test if errors from post construct methods called in parallel are collected and reported.
+     */
+    @Test
+    public void testParallelPostConstructFailure() {
+        Set<String> packages = new HashSet<>();
+        packages.add(TestInterface.class.getPackage().getName());
+        packages.add(Car.class.getPackage().getName());
+        Map<String, Object> initialBeans = prepareInitialBeans();
+        initialBeans.put(Dinistiq.POSTCONSTRUCT_PARALLELISM, 4);
+        initialBeans.put("manualBean", new ManualBean());
+        RuntimeException exception = null;
+        try {
+            new Dinistiq(packages, initialBeans);
+        } catch (RuntimeException e) {
+            exception = e;
+        } // try/catch
+        Assert.assertNotNull(exception, "Failing post construct method should have been reported.");
+        Assert.assertEquals(exception.getSuppressed().length, 1, "Unexpected number of collected errors.");
+        Assert.assertTrue(exception.getSuppressed()[0].getMessage().contains("postConstruct"), "Failing method should be named.");
+    } // testParallelPostConstructFailure()
+
 } // ErrorConditionTest
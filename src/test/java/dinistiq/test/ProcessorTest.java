@@ -0,0 +1,240 @@
+/**
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq.test;
+
+import dinistiq.BeanFactory;
+import dinistiq.ClassInfo;
+import dinistiq.ClassResolver;
+import dinistiq.Dinistiq;
+import dinistiq.IndexedClassResolver;
+import dinistiq.processor.DinistiqProcessor;
+import dinistiq.test.components.TestComponent;
+import dinistiq.test.components.TestInterface;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import jakarta.inject.Singleton;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ * Test the bean factories generated by the annotation processor.
+ */
+public class ProcessorTest {
+
+    private static final String SOURCE = "package generated;\n"
+            +"import jakarta.inject.Inject;\n"
+            +"import jakarta.inject.Named;\n"
+            +"import jakarta.inject.Singleton;\n"
+            +"import dinistiq.test.components.TestComponent;\n"
+            +"@Singleton\n"
+            +"public class GeneratedBean {\n"
+            +"    public static String creator;\n"
+            +"    public final String value;\n"
+            +"    public final TestComponent component;\n"
+            +"    @Inject\n"
+            +"    GeneratedBean(@Named(\"generatedValue\") String value, TestComponent component) {\n"
+            +"        this.value = value;\n"
+            +"        this.component = component;\n"
+            +"        creator = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE).getCallerClass().getName();\n"
+            +"    }\n"
+            +"    public static class Counter {\n"
+            +"        public final int count;\n"
+            +"        @Inject\n"
+            +"        public Counter(int count) {\n"
+            +"            this.count = count;\n"
+            +"        }\n"
+            +"    }\n"
+            +"    @Singleton\n"
+            +"    private static class Hidden {\n"
+            +"    }\n"
+            +"}\n";
+
+    private static final Map<String, String> INDEXED_SOURCES = Map.of(
+            "Service", "package indexed;\npublic interface Service {\n}\n",
+            "ServiceImpl", "package indexed;\n@jakarta.inject.Singleton\npublic class ServiceImpl implements Service {\n    static {\n        System.setProperty(\"indexed.initialized\", \"true\");\n    }\n}\n",
+            "AbstractService", "package indexed;\n@jakarta.inject.Singleton\npublic abstract class AbstractService implements Service {\n}\n",
+            "Plain", "package indexed;\npublic class Plain {\n}\n");
+
+
+    /**
+     * Compile sources with the annotation processor.
+     *
+     * @param root directory to place sources, generated sources, and classes in
+     * @param sources map of the source code by class name
+     * @param additionalOptions options to pass to the compiler in addition to the output directories and classpath
+     * @return directory with the compiled classes
+     * @throws IOException in case of file handling problems
+     */
+    private File compile(Path root, Map<String, String> sources, String... additionalOptions) throws IOException {
+        List<File> sourceFiles = new ArrayList<>();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            File sourceFile = root.resolve(source.getKey()+".java").toFile();
+            Files.writeString(sourceFile.toPath(), source.getValue(), StandardCharsets.UTF_8);
+            sourceFiles.add(sourceFile);
+        } // for
+        File classes = Files.createDirectories(root.resolve("classes")).toFile();
+        File generated = Files.createDirectories(root.resolve("generated")).toFile();
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(sourceFiles);
+            List<String> options = new ArrayList<>(List.of("-d", classes.getPath(), "-s", generated.getPath(), "-classpath", System.getProperty("java.class.path")));
+            options.addAll(List.of(additionalOptions));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, units);
+            task.setProcessors(List.of(new DinistiqProcessor()));
+            Assert.assertTrue(task.call(), "Compilation with annotation processor failed.");
+        } // try
+        return classes;
+    } // compile()
+
+
+    /**
+     * Compile a bean class with the processor and use the resulting factories directly and through dinistiq.
+     *
+     * @throws Exception in case of any problem
+     */
+    @Test
+    public void testGeneratedFactories() throws Exception {
+        Path root = Files.createTempDirectory("dinistiq-processor");
+        try {
+            File classes = compile(root, Map.of("GeneratedBean", SOURCE));
+            File generated = root.resolve("generated").toFile();
+
+            Assert.assertTrue(new File(generated, "generated/GeneratedBean"+BeanFactory.SUFFIX+".java").exists(), "Factory source not generated.");
+            Assert.assertFalse(new File(generated, "generated/GeneratedBean_Hidden"+BeanFactory.SUFFIX+".java").exists(), "Private classes cannot have factories.");
+            List<String> registry = readLines(new File(classes, "META-INF/services/"+BeanFactory.class.getName()));
+            Assert.assertEquals(registry, List.of("generated.GeneratedBean_Counter"+BeanFactory.SUFFIX, "generated.GeneratedBean"+BeanFactory.SUFFIX), "Unexpected factory registry.");
+
+            try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, getClass().getClassLoader())) {
+                BeanFactory<?> counterFactory = (BeanFactory<?>) classLoader.loadClass("generated.GeneratedBean_Counter"+BeanFactory.SUFFIX).getConstructor().newInstance();
+                Object counter = counterFactory.create(new Object[]{42});
+                Assert.assertEquals(counter.getClass().getField("count").get(counter), 42, "Primitive constructor parameter not passed.");
+
+                Set<String> packages = new HashSet<>();
+                packages.add(TestInterface.class.getPackage().getName());
+                Map<String, Object> initialBeans = InjectorTest.prepareInitialBeans();
+                initialBeans.put("generatedValue", "generated value");
+                Dinistiq d = new Dinistiq(packages, initialBeans);
+                Class<?> beanClass = classLoader.loadClass("generated.GeneratedBean");
+                Object bean = d.createBean(beanClass, null);
+                Assert.assertNotNull(bean, "Bean with generated factory not created.");
+                Assert.assertEquals(beanClass.getField("value").get(bean), "generated value", "Named constructor parameter not injected.");
+                Assert.assertEquals(beanClass.getField("component").get(bean), d.findBean(TestComponent.class), "Typed constructor parameter not injected.");
+                Assert.assertEquals(beanClass.getField("creator").get(null), "generated.GeneratedBean"+BeanFactory.SUFFIX, "Bean not created by generated factory.");
+            } // try
+        } finally {
+            delete(root);
+        } // try/finally
+    } // testGeneratedFactories()
+
+
+    /**
+     * Compile classes with the processor and resolve them through the resulting class index.
+     *
+     * @throws Exception in case of any problem
+     */
+    @Test
+    public void testClassIndex() throws Exception {
+        Path root = Files.createTempDirectory("dinistiq-index");
+        try {
+            Path resources = Files.createDirectories(root.resolve("resources/dinistiq/beans"));
+            Files.writeString(resources.resolve("serviceImpl.properties"), "name=value\n", StandardCharsets.UTF_8);
+            File classes = compile(root, INDEXED_SOURCES, "-A"+DinistiqProcessor.RESOURCES_OPTION+"="+root.resolve("resources"));
+            // a broken line must not hide the rest of the index
+            Path index = classes.toPath().resolve(IndexedClassResolver.INDEX);
+            Files.writeString(index, IndexedClassResolver.CLASS_PREFIX+"indexed.Broken not-a-number\n"+Files.readString(index, StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+
+            Thread thread = Thread.currentThread();
+            ClassLoader contextClassLoader = thread.getContextClassLoader();
+            try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, getClass().getClassLoader())) {
+                thread.setContextClassLoader(classLoader);
+                ClassResolver resolver = new IndexedClassResolver(Set.of("indexed"));
+                Class<?> service = classLoader.loadClass("indexed.Service");
+                Assert.assertEquals(getNames(resolver.getSubclasses(service)), Set.of("indexed.ServiceImpl"), "Unexpected implementations.");
+                Assert.assertEquals(getNames(resolver.getAnnotated(Singleton.class)), Set.of("indexed.ServiceImpl"), "Unexpected annotated classes.");
+                Assert.assertEquals(getNames(resolver.getAnnotatedItems(Singleton.class)), Set.of("indexed.ServiceImpl", "indexed.AbstractService"), "Unexpected annotated items.");
+                Assert.assertEquals(getNames(resolver.getAnnotatedSubclasses(service, Singleton.class)), Set.of("indexed.ServiceImpl", "indexed.AbstractService"), "Unexpected annotated implementations.");
+                Assert.assertEquals(resolver.getProperties("dinistiq/"), Set.of("dinistiq/beans/serviceImpl.properties"), "Unexpected properties files.");
+                Set<String> indexed = resolver.getClassInfos().map(ClassInfo::getName).collect(Collectors.toSet());
+                Assert.assertEquals(indexed, Set.of("indexed.Service", "indexed.ServiceImpl", "indexed.AbstractService", "indexed.Plain"), "Unexpected class metadata.");
+                Assert.assertNull(System.getProperty("indexed.initialized"), "Resolved class was initialized.");
+            } finally {
+                thread.setContextClassLoader(contextClassLoader);
+            } // try/finally
+        } finally {
+            delete(root);
+        } // try/finally
+    } // testClassIndex()
+
+
+    /**
+     * Delete a directory with all its contents.
+     *
+     * @param root directory to delete
+     * @throws IOException in case of file handling problems
+     */
+    private void delete(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            } // for
+        } // try
+    } // delete()
+
+
+    /**
+     * Get the names of a set of classes.
+     *
+     * @param classes set of classes
+     * @return set of the class names
+     */
+    private Set<String> getNames(Set<? extends Class<?>> classes) {
+        return classes.stream().map(Class::getName).collect(Collectors.toSet());
+    } // getNames()
+
+
+    /**
+     * Read all non empty lines of a text file.
+     *
+     * @param file file to read
+     * @return list of lines
+     * @throws IOException in case of read errors
+     */
+    private List<String> readLines(File file) throws IOException {
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).stream().filter(l -> !l.isBlank()).toList();
+    } // readLines()
+
+} // ProcessorTest
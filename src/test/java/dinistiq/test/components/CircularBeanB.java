@@ -0,0 +1,34 @@
+/*
+ *
+ * Copyright 2026 Martin Goellnitz
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dinistiq.test.components;
+
+import jakarta.inject.Inject;
+import lombok.Getter;
+
+
+/**
+ * Bean only to be passed in externally, which depends on a bean depending on this one.
+ */
+public class CircularBeanB {
+
+    @Inject
+    @Getter
+    private CircularBeanA partner;
+
+} // CircularBeanB
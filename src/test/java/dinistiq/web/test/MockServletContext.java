@@ -56,6 +56,8 @@ public class MockServletContext implements ServletContext {
 
     private String resolverClassName;
 
+    private final Map<String, String> initParameters = new HashMap<>();
+
 
     /**
      * Create a new mock servlet context with no real servlet attached for test purposes.
@@ -245,12 +247,18 @@ public class MockServletContext implements ServletContext {
      */
     @Override
     public String getInitParameter(String string) {
+        if (initParameters.containsKey(string)) {
+            return initParameters.get(string);
+        } // if
         if (DinistiqContextLoaderListener.DINISTIQ_PACKAGES.equals(string)) {
             return emptyInit ? null : "dummy";
         } // if
         if (DinistiqContextLoaderListener.DINISTIQ_CLASSRESOLVER.equals(string)) {
             return emptyInit ? resolverClassName : SimpleClassResolver.class.getName();
         } // if
+        if (string.startsWith("dinistiq.scan.")) {
+            return null;
+        } // if
         throw NYI;
     }
 
@@ -344,13 +352,13 @@ public class MockServletContext implements ServletContext {
 
 
     /**
-     * Not implemented.
+     * Set init parameters taking precedence over the default values.
      *
      * @see ServletContext#setInitParameter(java.lang.String, java.lang.String)
      */
     @Override
     public boolean setInitParameter(String string, String string1) {
-        throw NYI;
+        return initParameters.put(string, string1)==null;
     }
 
 
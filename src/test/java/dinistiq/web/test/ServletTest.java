@@ -19,9 +19,12 @@
 package dinistiq.web.test;
 
 import dinistiq.Dinistiq;
+import dinistiq.ScanFilter;
+import dinistiq.SimpleClassResolver;
 import dinistiq.test.InjectorTest;
 import dinistiq.test.components.TestInterface;
 import dinistiq.web.DinistiqContextLoaderListener;
+import java.io.File;
 import java.util.HashSet;
 import java.util.Set;
 import jakarta.servlet.ServletContextEvent;
@@ -70,4 +73,94 @@ public class ServletTest {
         dcll.contextDestroyed(sce);
     } // testContextLoaderListener()
 
+
+    /**
+     * Test passing scan cache and scan filter init parameters to the class resolvers.
+     *
+     * @throws Exception in case of file handling problems
+     */
+    @Test
+    public void testScanParameters() throws Exception {
+        File cacheFile = File.createTempFile("dinistiq-listener", ".cache");
+        Assert.assertTrue(cacheFile.delete(), "Cannot prepare cache file.");
+
+        // default resolver
+        MockServletContext context = new MockServletContext(true, null, null);
+        context.setInitParameter(DinistiqContextLoaderListener.DINISTIQ_PACKAGES, TestInterface.class.getPackage().getName()+","+Car.class.getPackage().getName());
+        context.setInitParameter(DinistiqContextLoaderListener.DINISTIQ_SCANCACHE, cacheFile.getPath());
+        new DinistiqContextLoaderListener().contextInitialized(new ServletContextEvent(context));
+        Assert.assertTrue(cacheFile.isFile(), "Scan cache not written by default resolver.");
+        Assert.assertNotNull(context.getAttribute(DinistiqContextLoaderListener.DINISTIQ_INSTANCE), "Dinistiq not initialized.");
+        Assert.assertTrue(cacheFile.delete(), "Cannot remove cache file.");
+
+        // custom resolver supporting cache and filter
+        context = new MockServletContext(true, FilteringResolver.class.getName(), null);
+        context.setInitParameter(DinistiqContextLoaderListener.DINISTIQ_PACKAGES, TestInterface.class.getPackage().getName()+","+Car.class.getPackage().getName());
+        context.setInitParameter(DinistiqContextLoaderListener.DINISTIQ_SCANCACHE, cacheFile.getPath());
+        context.setInitParameter(DinistiqContextLoaderListener.DINISTIQ_EXCLUDE_RESOURCES, "dinistiq/unused/*.properties\n  regex:dinistiq/unused[0-9]{1,3}/.*");
+        new DinistiqContextLoaderListener().contextInitialized(new ServletContextEvent(context));
+        Assert.assertEquals(FilteringResolver.cacheFile, cacheFile, "Scan cache not passed to custom resolver.");
+        Assert.assertNotNull(FilteringResolver.filter, "Scan filter not passed to custom resolver.");
+        Assert.assertEquals(FilteringResolver.filter.toString(), "resources-=dinistiq/unused/*.properties;resources-=regex:dinistiq/unused[0-9]{1,3}/.*;", "Unexpected scan filter.");
+        Assert.assertTrue(cacheFile.delete(), "Scan cache not written by custom resolver.");
+
+        // custom resolver without support for cache and filter is used anyway
+        context = new MockServletContext(true, PlainResolver.class.getName(), null);
+        context.setInitParameter(DinistiqContextLoaderListener.DINISTIQ_PACKAGES, TestInterface.class.getPackage().getName()+","+Car.class.getPackage().getName());
+        context.setInitParameter(DinistiqContextLoaderListener.DINISTIQ_SCANCACHE, cacheFile.getPath());
+        context.setInitParameter(DinistiqContextLoaderListener.DINISTIQ_EXCLUDE_RESOURCES, "dinistiq/unused/*.properties");
+        PlainResolver.created = false;
+        new DinistiqContextLoaderListener().contextInitialized(new ServletContextEvent(context));
+        Assert.assertTrue(PlainResolver.created, "Custom resolver replaced.");
+        Assert.assertFalse(cacheFile.exists(), "Scan cache unexpectedly written.");
+        Assert.assertNotNull(context.getAttribute(DinistiqContextLoaderListener.DINISTIQ_INSTANCE), "Dinistiq not initialized with custom resolver.");
+    } // testScanParameters()
+
+
+    /**
+     * Custom class resolver supporting a scan cache and a scan filter.
+     */
+    public static class FilteringResolver extends SimpleClassResolver {
+
+        private static File cacheFile;
+
+        private static ScanFilter filter;
+
+
+        /**
+         * Create the resolver and record the parameters.
+         *
+         * @param packageNames set of package names
+         * @param cacheFile scan cache file
+         * @param filter scan filter
+         */
+        public FilteringResolver(Set<String> packageNames, File cacheFile, ScanFilter filter) {
+            super(packageNames, cacheFile, filter);
+            FilteringResolver.cacheFile = cacheFile;
+            FilteringResolver.filter = filter;
+        } // FilteringResolver()
+
+    } // FilteringResolver
+
+
+    /**
+     * Custom class resolver only taking the set of packages.
+     */
+    public static class PlainResolver extends SimpleClassResolver {
+
+        private static boolean created;
+
+
+        /**
+         * Create the resolver and record the creation.
+         *
+         * @param packageNames set of package names
+         */
+        public PlainResolver(Set<String> packageNames) {
+            super(packageNames);
+            created = true;
+        } // PlainResolver()
+
+    } // PlainResolver
+
 } // ServletTest